@@ -6,11 +6,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
     
     private static final double EPSILON = 1e-10;
     
-    private FunctionPoint[] points;
+    // Координаты точек хранятся в параллельных массивах примитивов:
+    // 16 байт на точку и последовательный обход памяти при интерполяции
+    private double[] xs;
+    private double[] ys;
     private int pointsCount;
+    // Шаг сетки, если точки расположены равномерно, иначе NaN
+    private double uniformStep;
     
-    // Добавьте в класс ArrayTabulatedFunction
-
     public ArrayTabulatedFunction(FunctionPoint[] points) {
         if (points.length < 2) {
             throw new IllegalArgumentException("Количество точек должно быть не менее 2");
@@ -24,14 +27,72 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         }
         
         this.pointsCount = points.length;
-        this.points = new FunctionPoint[pointsCount];
+        this.xs = new double[pointsCount];
+        this.ys = new double[pointsCount];
         
-        // Создаем копии точек для инкапсуляции
+        // Копируем координаты для инкапсуляции
         for (int i = 0; i < pointsCount; i++) {
-            this.points[i] = new FunctionPoint(points[i]);
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
         }
+        updateUniformStep();
+    }
+    
+    public ArrayTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Массивы координат X и Y должны быть одинаковой длины");
+        }
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        
+        // Проверка упорядоченности точек по X
+        for (int i = 0; i < xValues.length - 1; i++) {
+            if (xValues[i] >= xValues[i + 1] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        
+        this.pointsCount = xValues.length;
+        this.xs = xValues.clone();
+        this.ys = yValues.clone();
+        updateUniformStep();
     }
 
+    private ArrayTabulatedFunction(double[] xValues, double[] yValues, boolean adopt) {
+        this.pointsCount = xValues.length;
+        this.xs = xValues;
+        this.ys = yValues;
+        updateUniformStep();
+    }
+    
+    /**
+     * Создаёт функцию над массивами без копирования и без проверки порядка точек.
+     * Вызывающий код гарантирует, что точек не меньше двух, X возрастают
+     * с шагом больше EPSILON, а массивы больше нигде не используются.
+     */
+    static ArrayTabulatedFunction adopt(double[] xValues, double[] yValues) {
+        return new ArrayTabulatedFunction(xValues, yValues, true);
+    }
+    
+    /**
+     * Создаёт функцию над массивами без копирования с теми же проверками
+     * количества и порядка точек, что и конструктор. Используется при чтении
+     * функции из потока в заранее выделенные массивы одинаковой длины,
+     * которые больше нигде не используются.
+     */
+    static ArrayTabulatedFunction adoptChecked(double[] xValues, double[] yValues) {
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        for (int i = 0; i < xValues.length - 1; i++) {
+            if (xValues[i] >= xValues[i + 1] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        return new ArrayTabulatedFunction(xValues, yValues, true);
+    }
+    
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount) {
         if (leftX >= rightX - EPSILON) {
             throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
@@ -41,14 +102,15 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         }
         
         this.pointsCount = pointsCount;
-        this.points = new FunctionPoint[pointsCount];
+        this.xs = new double[pointsCount];
+        this.ys = new double[pointsCount];
         
         double step = (rightX - leftX) / (pointsCount - 1);
         
         for(int i = 0; i < pointsCount; ++i) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, 0.0);
+            xs[i] = leftX + i * step;
         }
+        this.uniformStep = step;
     }
     
     public ArrayTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -60,24 +122,25 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         }
         
         this.pointsCount = values.length;
-        this.points = new FunctionPoint[pointsCount];
+        this.xs = new double[pointsCount];
+        this.ys = values.clone();
         
         double step = (rightX - leftX) / (pointsCount - 1);
         
         for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            points[i] = new FunctionPoint(x, values[i]);
+            xs[i] = leftX + i * step;
         }
+        this.uniformStep = step;
     }
     
     @Override
     public double getLeftDomainBorder() {
-        return points[0].getX();
+        return xs[0];
     }
     
     @Override
     public double getRightDomainBorder() {
-        return points[pointsCount - 1].getX();
+        return xs[pointsCount - 1];
     }
     
     @Override
@@ -86,26 +149,135 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
             return Double.NaN;
         }
         
-        for (int i = 0; i < pointsCount - 1; i++) {
-            double x1 = points[i].getX();
-            double x2 = points[i + 1].getX();
+        return interpolate(findSegment(x), x);
+    }
+    
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Для упорядоченных по возрастанию аргументов отрезок ищется продвижением
+     * единственного курсора вперёд, что даёт O(n + m) на передискретизацию.
+     * Если очередной аргумент меньше начала текущего отрезка, его отрезок
+     * находится обычным поиском, и обход продолжается от него.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        double left = xs[0] - EPSILON;
+        double right = xs[pointsCount - 1] + EPSILON;
+        int segment = -1;
+        
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
             
-            if (x >= x1 - EPSILON && x <= x2 + EPSILON) {
-                double y1 = points[i].getY();
-                double y2 = points[i + 1].getY();
-                
-                // Проверка на точное совпадение с граничными точками
-                if (x > x1 - EPSILON && x < x1 + EPSILON) {
-                    return y1;
-                }
-                if (x > x2 - EPSILON && x < x2 + EPSILON) {
-                    return y2;
-                }
-                
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+            if (segment >= 0 && x >= xs[segment]) {
+                segment = advanceSegment(segment, x);
+            } else {
+                segment = findSegment(x);
+            }
+            out[i] = interpolate(segment, x);
+        }
+    }
+    
+    /**
+     * Сдвигает курсор отрезка вперёд до отрезка, содержащего x (xs[from] <= x).
+     * Сначала шаг увеличивается экспоненциально, затем отрезок уточняется
+     * бинарным поиском, так что далёкий переход стоит O(log d).
+     */
+    private int advanceSegment(int from, double x) {
+        int last = pointsCount - 2;
+        if (from >= last || x <= xs[from + 1]) {
+            return from;
+        }
+        
+        // Здесь xs[low] < x, ищем последний индекс с xs[i] <= x
+        int low = from + 1;
+        int bound = 1;
+        while (low + bound <= last && xs[low + bound] <= x) {
+            low += bound;
+            bound <<= 1;
+        }
+        return searchSegment(low, Math.min(low + bound - 1, last), x);
+    }
+    
+    /**
+     * Находит индекс i отрезка [x_i, x_{i+1}], содержащего x.
+     * На равномерной сетке индекс вычисляется сразу как (x - left) / step,
+     * иначе используется бинарный поиск.
+     */
+    private int findSegment(double x) {
+        int last = pointsCount - 2;
+        
+        if (!Double.isNaN(uniformStep)) {
+            int i = (int) ((x - xs[0]) / uniformStep);
+            if (i < 0) {
+                i = 0;
+            } else if (i > last) {
+                i = last;
+            }
+            // Из-за округления индекс может отличаться от точного на единицу
+            if (x >= xs[i] && x <= xs[i + 1]) {
+                return i;
+            }
+            if (i > 0 && x < xs[i] && x >= xs[i - 1]) {
+                return i - 1;
+            }
+            if (i < last && x > xs[i + 1] && x <= xs[i + 2]) {
+                return i + 1;
+            }
+        }
+        
+        return searchSegment(0, last, x);
+    }
+    
+    // Бинарный поиск последнего индекса из [low, high], для которого xs[i] <= x
+    private int searchSegment(int low, int high, double x) {
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    
+    // Линейная интерполяция на отрезке [x_i, x_{i+1}]
+    private double interpolate(int i, double x) {
+        double x1 = xs[i];
+        double x2 = xs[i + 1];
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+        
+        // Проверка на точное совпадение с граничными точками
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return y1;
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return y2;
+        }
+        
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+    
+    /**
+     * Пересчитывает признак равномерной сетки. Точность проверки невысока:
+     * шаг используется только как начальное приближение индекса в findSegment.
+     */
+    private void updateUniformStep() {
+        double step = (xs[pointsCount - 1] - xs[0]) / (pointsCount - 1);
+        double tolerance = step * 1e-6;
+        
+        for (int i = 1; i < pointsCount - 1; i++) {
+            if (Math.abs(xs[i] - (xs[0] + i * step)) > tolerance) {
+                uniformStep = Double.NaN;
+                return;
             }
         }
-        return Double.NaN;
+        uniformStep = step;
     }
     
     @Override
@@ -118,7 +290,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(xs[index], ys[index]);
     }
     
     @Override
@@ -137,31 +309,55 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
     }
     
     private void setFirstPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        if (point.getX() >= points[1].getX() - EPSILON) {
+        if (point.getX() >= xs[1] - EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X координата первой точки должна быть меньше X координаты второй точки");
         }
-        points[0] = new FunctionPoint(point);
+        xs[0] = point.getX();
+        ys[0] = point.getY();
+        updateEndpointStep(0, xs[pointsCount - 1] - (pointsCount - 1) * uniformStep);
     }
     
     private void setLastPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        if (point.getX() <= points[pointsCount - 2].getX() + EPSILON) {
+        if (point.getX() <= xs[pointsCount - 2] + EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X координата последней точки должна быть больше X координаты предыдущей точки");
         }
-        points[pointsCount - 1] = new FunctionPoint(point);
+        xs[pointsCount - 1] = point.getX();
+        ys[pointsCount - 1] = point.getY();
+        updateEndpointStep(pointsCount - 1, xs[0] + (pointsCount - 1) * uniformStep);
+    }
+    
+    /**
+     * Проверяет сетку после изменения крайней точки без прохода по точкам.
+     * Крайняя точка, сошедшая со своего узла, меняет шаг, и средние точки
+     * перестают лежать на сетке; сетка из двух точек равномерна всегда.
+     * @param gridX узел крайней точки на прежней сетке
+     */
+    private void updateEndpointStep(int index, double gridX) {
+        if (pointsCount == 2) {
+            uniformStep = xs[1] - xs[0];
+        } else if (!Double.isNaN(uniformStep) && Math.abs(xs[index] - gridX) > uniformStep * 1e-6) {
+            uniformStep = Double.NaN;
+        }
     }
     
     private void setMiddlePoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
-        double prevX = points[index - 1].getX();
-        double nextX = points[index + 1].getX();
+        double prevX = xs[index - 1];
+        double nextX = xs[index + 1];
         double newX = point.getX();
         
         if (newX <= prevX + EPSILON || newX >= nextX - EPSILON) {
             throw new InappropriateFunctionPointException(
                 "X координата средней точки должна быть между " + prevX + " и " + nextX);
         }
-        points[index] = new FunctionPoint(point);
+        // Смещение средней точки с её узла сетки делает сетку неравномерной
+        if (!Double.isNaN(uniformStep)
+                && Math.abs(newX - (xs[0] + index * uniformStep)) > uniformStep * 1e-6) {
+            uniformStep = Double.NaN;
+        }
+        xs[index] = newX;
+        ys[index] = point.getY();
     }
     
     @Override
@@ -169,7 +365,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return points[index].getX();
+        return xs[index];
     }
     
     @Override
@@ -178,9 +374,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
         
-        FunctionPoint tempPoint = new FunctionPoint(points[index]);
-        tempPoint.setX(x);
-        setPoint(index, tempPoint);
+        setPoint(index, new FunctionPoint(x, ys[index]));
     }
     
     @Override
@@ -188,7 +382,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        return points[index].getY();
+        return ys[index];
     }
     
     @Override
@@ -196,14 +390,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
-        points[index].setY(y);
+        ys[index] = y;
     }
     
     @Override
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         // Проверка на дубликат
         for (int i = 0; i < pointsCount; i++) {
-            double currentX = getPointX(i);
+            double currentX = xs[i];
             if (point.getX() > currentX - EPSILON && point.getX() < currentX + EPSILON) {
                 throw new InappropriateFunctionPointException(
                     "Точка с X=" + point.getX() + " уже существует");
@@ -211,23 +405,57 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         }
         
         // Увеличиваем массив при необходимости
-        if (pointsCount == points.length) {
-            FunctionPoint[] newPoints = new FunctionPoint[points.length + points.length / 2 + 1];
-            System.arraycopy(points, 0, newPoints, 0, pointsCount);
-            points = newPoints;
+        if (pointsCount == xs.length) {
+            resize(xs.length + xs.length / 2 + 1);
         }
 
         // Находим позицию для вставки
         int insertIndex = 0;
-        while (insertIndex < pointsCount && point.getX() > points[insertIndex].getX() + EPSILON) {
+        while (insertIndex < pointsCount && point.getX() > xs[insertIndex] + EPSILON) {
             insertIndex++;
         }
 
         // Сдвигаем элементы и вставляем новую точку
-        System.arraycopy(points, insertIndex, points, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(xs, insertIndex, xs, insertIndex + 1, pointsCount - insertIndex);
+        System.arraycopy(ys, insertIndex, ys, insertIndex + 1, pointsCount - insertIndex);
         
-        points[insertIndex] = new FunctionPoint(point);
+        xs[insertIndex] = point.getX();
+        ys[insertIndex] = point.getY();
         pointsCount++;
+        updateUniformStep();
+    }
+
+    /**
+     * Добавляет набор точек однопроходным слиянием с конца массивов:
+     * O(n + k log k) вместо O(k * n) при добавлении по одной точке
+     * и не более одного перевыделения массивов.
+     */
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        double[] addXs = xValues.clone();
+        double[] addYs = yValues.clone();
+        TabulatedFunctions.sortPointBatch(addXs, addYs);
+        TabulatedFunctions.checkPointBatch(this, addXs);
+
+        int total = pointsCount + addXs.length;
+        if (total > xs.length) {
+            resize(Math.max(total, xs.length + xs.length / 2 + 1));
+        }
+
+        // Слияние с конца: ещё не перенесённые точки не затираются
+        int a = pointsCount - 1;
+        int b = addXs.length - 1;
+        for (int t = total - 1; b >= 0; t--) {
+            if (a >= 0 && xs[a] > addXs[b]) {
+                xs[t] = xs[a];
+                ys[t] = ys[a--];
+            } else {
+                xs[t] = addXs[b];
+                ys[t] = addYs[b--];
+            }
+        }
+        pointsCount = total;
+        updateUniformStep();
     }
 
     @Override
@@ -239,13 +467,25 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
             throw new IllegalStateException("Нельзя удалить точку - функция должна содержать минимум 3 точки");
         }
         
-        System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
+        System.arraycopy(xs, index + 1, xs, index, pointsCount - index - 1);
+        System.arraycopy(ys, index + 1, ys, index, pointsCount - index - 1);
         pointsCount--;
         
-        // Обнуляем последний элемент для помощи GC
-        if (pointsCount < points.length) {
-            points[pointsCount] = null;
+        // Сжимаем массивы, если они заполнены менее чем на четверть
+        if (pointsCount < xs.length / 4) {
+            resize(pointsCount * 2);
         }
+        updateUniformStep();
+    }
+    
+    // Перевыделение массивов координат с сохранением точек
+    private void resize(int capacity) {
+        double[] newXs = new double[capacity];
+        double[] newYs = new double[capacity];
+        System.arraycopy(xs, 0, newXs, 0, pointsCount);
+        System.arraycopy(ys, 0, newYs, 0, pointsCount);
+        xs = newXs;
+        ys = newYs;
     }
     
     @Override
@@ -254,7 +494,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         sb.append("{");
         for (int i = 0; i < pointsCount; i++) {
             if (i > 0) sb.append(", ");
-            sb.append(points[i].toString());
+            sb.append('(').append(xs[i]).append("; ").append(ys[i]).append(')');
         }
         sb.append("}");
         return sb.toString();
@@ -275,9 +515,10 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
             if (this == otherArray) return true;
             if (this.pointsCount != otherArray.pointsCount) return false;
             
-            // Сравниваем точки через их метод equals
+            // Сравниваем координаты напрямую, как FunctionPoint.equals
             for (int i = 0; i < pointsCount; i++) {
-                if (!this.points[i].equals(otherArray.points[i])) {
+                if (Double.compare(this.xs[i], otherArray.xs[i]) != 0
+                        || Double.compare(this.ys[i], otherArray.ys[i]) != 0) {
                     return false;
                 }
             }
@@ -301,7 +542,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         
         for (int i = 0; i < pointsCount; i++) {
             // Используем хэш-код каждой точки и комбинируем через XOR
-            result ^= points[i].hashCode();
+            result ^= FunctionPoint.pointHashCode(xs[i], ys[i]);
         }
         
         return result;
@@ -312,11 +553,9 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable,
         try {
             ArrayTabulatedFunction cloned = (ArrayTabulatedFunction) super.clone();
             
-            // Глубокое клонирование массива точек
-            cloned.points = new FunctionPoint[this.points.length];
-            for (int i = 0; i < this.pointsCount; i++) {
-                cloned.points[i] = (FunctionPoint) this.points[i].clone();
-            }
+            // Глубокое клонирование массивов координат
+            cloned.xs = this.xs.clone();
+            cloned.ys = this.ys.clone();
             
             cloned.pointsCount = this.pointsCount;
             
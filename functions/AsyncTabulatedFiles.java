@@ -0,0 +1,240 @@
+package functions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронные сохранение и загрузка табулированных функций через
+ * AsynchronousFileChannel. Файл читается или пишется целиком цепочкой
+ * операций ввода-вывода без блокировки вызывающего потока; разбор
+ * прочитанных байт выполняется в потоке завершения чтения теми же
+ * методами, что и при синхронной загрузке. Запись кодирует функцию
+ * в один буфер блоками: следующий блок - после записи предыдущего.
+ */
+final class AsyncTabulatedFiles {
+
+    // Файл читается в один массив
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE - 8;
+
+    private AsyncTabulatedFiles() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Записывает функцию в файл, заменяя его содержимое. Блоки кодируются
+     * в buffer: первый - в вызывающем потоке, остальные - в потоках
+     * завершения записи
+     */
+    static CompletableFuture<Void> write(Path path, TabulatedFunctions.BinaryEncoder encoder, ByteBuffer buffer) {
+        CompletableFuture<ByteBuffer> done = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.clear();
+            buffer.flip();
+            Transfer transfer = new Transfer(channel, buffer, encoder, done);
+            // Ошибка кодирования первого блока закрывает канал, как и ошибки следующих
+            try {
+                transfer.start();
+            } catch (RuntimeException e) {
+                transfer.finish(e);
+            }
+        } catch (IOException | RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+        return done.thenApply(written -> null);
+    }
+
+    /**
+     * Читает файл целиком
+     * @return байты файла от 0 до limit
+     */
+    static CompletableFuture<ByteBuffer> readAll(Path path) {
+        CompletableFuture<ByteBuffer> done = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+            long size;
+            try {
+                size = channel.size();
+                if (size > MAX_FILE_BYTES) {
+                    throw new IOException("Файл " + path + " слишком большой для загрузки: " + size + " байт");
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            new Transfer(channel, ByteBuffer.allocate((int) size), null, done).start();
+        } catch (IOException | RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    /**
+     * Продолжает чтение или запись с позиции, на которой закончилась предыдущая
+     * операция, пока буфер не будет пройден; затем закрывает канал. При записи
+     * пройденный буфер заполняется следующими блоками кодировщика, пока
+     * функция не будет записана целиком
+     */
+    private static final class Transfer implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer buffer;
+        // null при чтении
+        private final TabulatedFunctions.BinaryEncoder encoder;
+        private final CompletableFuture<ByteBuffer> done;
+        private long position;
+
+        Transfer(AsynchronousFileChannel channel, ByteBuffer buffer, TabulatedFunctions.BinaryEncoder encoder,
+                 CompletableFuture<ByteBuffer> done) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.encoder = encoder;
+            this.done = done;
+        }
+
+        void start() {
+            if (!buffer.hasRemaining() && encoder != null && !encoder.isDone()) {
+                buffer.clear();
+                encoder.fill(buffer);
+                buffer.flip();
+            }
+            if (!buffer.hasRemaining()) {
+                finish(null);
+                return;
+            }
+            if (encoder == null) {
+                channel.read(buffer, position, null, this);
+            } else {
+                channel.write(buffer, position, null, this);
+            }
+        }
+
+        @Override
+        public void completed(Integer result, Void attachment) {
+            // Файл укоротился после определения размера: разбор прочитанного сообщит об ошибке
+            if (result < 0) {
+                finish(null);
+                return;
+            }
+            position += result;
+            try {
+                start();
+            } catch (RuntimeException e) {
+                finish(e);
+            }
+        }
+
+        @Override
+        public void failed(Throwable exc, Void attachment) {
+            finish(exc);
+        }
+
+        private void finish(Throwable failure) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure != null) {
+                done.completeExceptionally(failure);
+            } else {
+                buffer.flip();
+                done.complete(buffer);
+            }
+        }
+    }
+
+    /**
+     * Разбирает байты файла методом inputTabulatedFunction
+     */
+    static TabulatedFunction decodeBinary(ByteBuffer data) {
+        try {
+            return TabulatedFunctions.inputTabulatedFunction(stream(data));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Разбирает байты файла методом readTabulatedFunction в кодировке
+     * по умолчанию, как FileReader в loadFromTextFile
+     */
+    static TabulatedFunction decodeText(ByteBuffer data) {
+        try {
+            return TabulatedFunctions.readTabulatedFunction(new InputStreamReader(stream(data)));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static InputStream stream(ByteBuffer data) {
+        return new ByteArrayInputStream(data.array(), data.arrayOffset(), data.limit());
+    }
+
+    /**
+     * Загружает файлы байтового формата, выполняя одновременно не больше
+     * maxConcurrency загрузок: каждая завершившаяся загрузка запускает
+     * следующую. При первой ошибке результат завершается ею, и новые
+     * загрузки не начинаются
+     */
+    static CompletableFuture<List<TabulatedFunction>> loadAll(Collection<Path> paths, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Количество одновременных загрузок должно быть положительным");
+        }
+        Path[] files = paths.toArray(new Path[0]);
+        TabulatedFunction[] loaded = new TabulatedFunction[files.length];
+        CompletableFuture<List<TabulatedFunction>> result = new CompletableFuture<>();
+        if (files.length == 0) {
+            result.complete(new ArrayList<>());
+            return result;
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(files.length);
+        for (int k = Math.min(maxConcurrency, files.length); k > 0; k--) {
+            loadNext(files, loaded, next, remaining, result);
+        }
+        return result;
+    }
+
+    private static void loadNext(Path[] files, TabulatedFunction[] loaded, AtomicInteger next,
+                                 AtomicInteger remaining, CompletableFuture<List<TabulatedFunction>> result) {
+        int index = next.getAndIncrement();
+        if (index >= files.length || result.isDone()) {
+            return;
+        }
+        readAll(files[index]).thenApply(AsyncTabulatedFiles::decodeBinary).whenComplete((function, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure);
+                return;
+            }
+            loaded[index] = function;
+            // Запись в массив видна потоку, который увидит последнее уменьшение счётчика
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(new ArrayList<>(Arrays.asList(loaded)));
+            } else {
+                loadNext(files, loaded, next, remaining, result);
+            }
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package functions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Приближение функции на отрезке [a, b] рядом Чебышёва
+ * c0 + c1·T1(t) + ... + cn·Tn(t), где t = (2x - a - b) / (b - a).
+ *
+ * Значение вычисляется рекуррентной схемой Кленшоу: n умножений и сложений
+ * без ветвлений. Для гладких функций ряд небольшой степени заменяет
+ * табулированную функцию с сотнями тысяч точек.
+ * Вне [a, b] значение не определено (NaN), как у табулированных функций.
+ * Экземпляры неизменяемы. Создаются через TabulatedFunctions.chebyshevOfDegree и chebyshevWithTolerance.
+ */
+public class ChebyshevFunction implements Function, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+
+    // Количество аргументов, обрабатываемых getFunctionValues за один проход по коэффициентам
+    private static final int BLOCK = 512;
+
+    private final double leftX;
+    private final double rightX;
+    private final double[] coefficients;
+    // Приведение x к t = (x - middle) * inverseHalfWidth
+    private final double middle;
+    private final double inverseHalfWidth;
+
+    /**
+     * Конструктор ряда Чебышёва
+     * @param leftX левая граница отрезка
+     * @param rightX правая граница отрезка
+     * @param coefficients коэффициенты c0..cn при T0..Tn
+     * @throws IllegalArgumentException если отрезок пуст или коэффициентов нет
+     */
+    public ChebyshevFunction(double leftX, double rightX, double[] coefficients) {
+        if (!(leftX < rightX)) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("Ряд должен содержать хотя бы один коэффициент");
+        }
+        this.leftX = leftX;
+        this.rightX = rightX;
+        this.coefficients = coefficients.clone();
+        this.middle = leftX + (rightX - leftX) / 2;
+        this.inverseHalfWidth = 2 / (rightX - leftX);
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return leftX;
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return rightX;
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < leftX - EPSILON || x > rightX + EPSILON) {
+            return Double.NaN;
+        }
+        double t = (x - middle) * inverseHalfWidth;
+        double twoT = 2 * t;
+        double b1 = 0;
+        double b2 = 0;
+        for (int j = coefficients.length - 1; j >= 1; j--) {
+            double b = twoT * b1 - b2 + coefficients[j];
+            b2 = b1;
+            b1 = b;
+        }
+        return t * b1 - b2 + coefficients[0];
+    }
+
+    /**
+     * Вычисляет значения ряда для массива аргументов. Рекуррентная схема
+     * выполняется для блока аргументов сразу: внешний цикл идёт по
+     * коэффициентам, внутренний - по аргументам, и внутренний цикл JIT векторизует.
+     * @param xValues аргументы функции
+     * @param out массив для значений; NaN для аргументов вне отрезка
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        int n = xValues.length;
+        int length = Math.min(n, BLOCK);
+        double[] ts = new double[length];
+        double[] b1 = new double[length];
+        double[] b2 = new double[length];
+        for (int from = 0; from < n; from += BLOCK) {
+            int count = Math.min(BLOCK, n - from);
+            System.arraycopy(xValues, from, ts, 0, count);
+            clenshaw(ts, b1, b2, count);
+
+            for (int i = 0; i < count; i++) {
+                double x = xValues[from + i];
+                if (x < leftX - EPSILON || x > rightX + EPSILON) {
+                    b1[i] = Double.NaN;
+                }
+            }
+            // Блок xValues уже прочитан, поэтому out может совпадать с xValues
+            System.arraycopy(b1, 0, out, from, count);
+        }
+    }
+
+    // В ts - аргументы, результат - в b1
+    private void clenshaw(double[] ts, double[] b1, double[] b2, int count) {
+        for (int i = 0; i < count; i++) {
+            ts[i] = (ts[i] - middle) * inverseHalfWidth;
+            b1[i] = 0;
+            b2[i] = 0;
+        }
+        for (int j = coefficients.length - 1; j >= 1; j--) {
+            double c = coefficients[j];
+            for (int i = 0; i < count; i++) {
+                double b = 2 * ts[i] * b1[i] - b2[i] + c;
+                b2[i] = b1[i];
+                b1[i] = b;
+            }
+        }
+        double c0 = coefficients[0];
+        for (int i = 0; i < count; i++) {
+            b1[i] = ts[i] * b1[i] - b2[i] + c0;
+        }
+    }
+
+    /**
+     * Возвращает степень ряда
+     * @return наибольший номер коэффициента
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Возвращает коэффициенты ряда
+     * @return копия коэффициентов c0..cn
+     */
+    public double[] getCoefficients() {
+        return coefficients.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChebyshevFunction that = (ChebyshevFunction) o;
+        return Double.compare(leftX, that.leftX) == 0
+                && Double.compare(rightX, that.rightX) == 0
+                && Arrays.equals(coefficients, that.coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(leftX);
+        result = 31 * result + Double.hashCode(rightX);
+        return 31 * result + Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        return "chebyshev[" + leftX + ", " + rightX + "](degree " + getDegree() + ")";
+    }
+}
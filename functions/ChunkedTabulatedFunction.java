@@ -0,0 +1,608 @@
+package functions;
+
+import java.io.Serializable;
+
+/**
+ * Табулированная функция на основе развёрнутого списка: точки хранятся в блоках
+ * фиксированной ёмкости, каждый блок - пара массивов примитивов.
+ *
+ * Вставка и удаление сдвигают элементы только внутри одного блока и обновляют
+ * таблицу начальных индексов блоков, что стоит O(B + n / B) вместо O(n) у
+ * ArrayTabulatedFunction. Поиск по X и по индексу выполняется бинарным поиском
+ * сначала по блокам, затем внутри блока, а последовательный обход идёт по
+ * массивам так же быстро, как в ArrayTabulatedFunction.
+ */
+public class ChunkedTabulatedFunction implements TabulatedFunction, Serializable, Cloneable {
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+
+    // Ёмкость блока и его заполнение при построении из готового набора точек;
+    // запас оставляет место для вставок без немедленного деления блоков
+    private static final int CHUNK_CAPACITY = 1024;
+    private static final int INITIAL_FILL = CHUNK_CAPACITY * 3 / 4;
+
+    private Chunk[] chunks;
+    private int chunkCount;
+    // Индекс первой точки каждого блока
+    private int[] chunkStarts;
+    private int pointsCount;
+
+    public ChunkedTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        // Проверка упорядоченности точек по X
+        for (int i = 0; i < points.length - 1; i++) {
+            if (points[i].getX() >= points[i + 1].getX() - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+
+        double[] xValues = new double[points.length];
+        double[] yValues = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
+        }
+        fill(xValues, yValues);
+    }
+
+    public ChunkedTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Массивы координат X и Y должны быть одинаковой длины");
+        }
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        // Проверка упорядоченности точек по X
+        for (int i = 0; i < xValues.length - 1; i++) {
+            if (xValues[i] >= xValues[i + 1] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+
+        fill(xValues, yValues);
+    }
+
+    public ChunkedTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[Math.max(pointsCount, 0)]);
+    }
+
+    public ChunkedTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX - EPSILON) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        double[] xValues = new double[values.length];
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            xValues[i] = leftX + i * step;
+        }
+        fill(xValues, values);
+    }
+
+    // Раскладывает упорядоченные точки по блокам
+    private void fill(double[] xValues, double[] yValues) {
+        pointsCount = xValues.length;
+        chunkCount = (pointsCount + INITIAL_FILL - 1) / INITIAL_FILL;
+        chunks = new Chunk[chunkCount + 1];
+        chunkStarts = new int[chunkCount + 1];
+
+        for (int c = 0; c < chunkCount; c++) {
+            int from = c * INITIAL_FILL;
+            int size = Math.min(INITIAL_FILL, pointsCount - from);
+            Chunk chunk = new Chunk();
+            System.arraycopy(xValues, from, chunk.xs, 0, size);
+            System.arraycopy(yValues, from, chunk.ys, 0, size);
+            chunk.size = size;
+            chunks[c] = chunk;
+        }
+        updateStarts(0);
+    }
+
+    // Пересчитывает начальные индексы блоков, начиная с блока from
+    private void updateStarts(int from) {
+        int start = from == 0 ? 0 : chunkStarts[from - 1] + chunks[from - 1].size;
+        for (int c = from; c < chunkCount; c++) {
+            chunkStarts[c] = start;
+            start += chunks[c].size;
+        }
+    }
+
+    // Номер блока, содержащего точку с заданным индексом
+    private int chunkOfIndex(int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunkStarts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Номер последнего блока, первая точка которого не правее x (или 0)
+    private int chunkOfX(double x) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunks[mid].xs[0] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return chunks[0].xs[0];
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        Chunk last = chunks[chunkCount - 1];
+        return last.xs[last.size - 1];
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() - EPSILON || x > getRightDomainBorder() + EPSILON) {
+            return Double.NaN;
+        }
+
+        int c = chunkOfX(x);
+        Chunk chunk = chunks[c];
+
+        // Последняя точка блока с X не больше x
+        int low = 0;
+        int high = chunk.size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunk.xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return interpolate(c, low, x);
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Для упорядоченных по возрастанию аргументов курсор (блок, позиция)
+     * только продвигается вперёд; при нарушении порядка отрезок ищется заново.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        int c = -1;
+        int p = 0;
+
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
+
+            if (c >= 0 && x >= chunks[c].xs[p]) {
+                // Продвигаем курсор, пока следующая точка левее x
+                while (true) {
+                    Chunk chunk = chunks[c];
+                    if (p + 1 < chunk.size) {
+                        if (chunk.xs[p + 1] > x) break;
+                        p++;
+                    } else {
+                        if (c + 1 == chunkCount || chunks[c + 1].xs[0] > x) break;
+                        c++;
+                        p = 0;
+                    }
+                }
+                out[i] = interpolate(c, p, x);
+            } else {
+                out[i] = getFunctionValue(x);
+                c = chunkOfX(x);
+                p = 0;
+            }
+        }
+    }
+
+    /**
+     * Интерполяция на отрезке, левый конец которого - точка p блока c.
+     * Правый конец может находиться в следующем блоке; если левый конец -
+     * последняя точка функции, используется предыдущий отрезок.
+     */
+    private double interpolate(int c, int p, double x) {
+        Chunk chunk = chunks[c];
+        double x1;
+        double y1;
+        double x2;
+        double y2;
+
+        if (p + 1 < chunk.size) {
+            x1 = chunk.xs[p];
+            y1 = chunk.ys[p];
+            x2 = chunk.xs[p + 1];
+            y2 = chunk.ys[p + 1];
+        } else if (c + 1 < chunkCount) {
+            Chunk next = chunks[c + 1];
+            x1 = chunk.xs[p];
+            y1 = chunk.ys[p];
+            x2 = next.xs[0];
+            y2 = next.ys[0];
+        } else if (p > 0) {
+            x1 = chunk.xs[p - 1];
+            y1 = chunk.ys[p - 1];
+            x2 = chunk.xs[p];
+            y2 = chunk.ys[p];
+        } else {
+            Chunk prev = chunks[c - 1];
+            x1 = prev.xs[prev.size - 1];
+            y1 = prev.ys[prev.size - 1];
+            x2 = chunk.xs[p];
+            y2 = chunk.ys[p];
+        }
+
+        // Проверка на точное совпадение с граничными точками
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return y1;
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return y2;
+        }
+
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        int c = chunkOfIndex(index);
+        int p = index - chunkStarts[c];
+        return new FunctionPoint(chunks[c].xs[p], chunks[c].ys[p]);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        double newX = point.getX();
+
+        if (index == 0) {
+            if (newX >= getPointX(1) - EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата первой точки должна быть меньше X координаты второй точки");
+            }
+        } else if (index == pointsCount - 1) {
+            if (newX <= getPointX(pointsCount - 2) + EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата последней точки должна быть больше X координаты предыдущей точки");
+            }
+        } else {
+            double prevX = getPointX(index - 1);
+            double nextX = getPointX(index + 1);
+            if (newX <= prevX + EPSILON || newX >= nextX - EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата средней точки должна быть между " + prevX + " и " + nextX);
+            }
+        }
+
+        int c = chunkOfIndex(index);
+        int p = index - chunkStarts[c];
+        chunks[c].xs[p] = newX;
+        chunks[c].ys[p] = point.getY();
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        int c = chunkOfIndex(index);
+        return chunks[c].xs[index - chunkStarts[c]];
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        setPoint(index, new FunctionPoint(x, getPointY(index)));
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        int c = chunkOfIndex(index);
+        return chunks[c].ys[index - chunkStarts[c]];
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        int c = chunkOfIndex(index);
+        chunks[c].ys[index - chunkStarts[c]] = y;
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        double newX = point.getX();
+        int c = chunkOfX(newX);
+        Chunk chunk = chunks[c];
+        int p = insertPosition(chunk, newX);
+
+        if (isDuplicateX(c, p, newX)) {
+            throw new InappropriateFunctionPointException("Точка с X=" + newX + " уже существует");
+        }
+
+        // Полный блок делим пополам
+        if (chunk.size == CHUNK_CAPACITY) {
+            splitChunk(c);
+            int half = chunk.size;
+            if (p > half) {
+                c++;
+                p -= half;
+                chunk = chunks[c];
+            }
+        }
+
+        System.arraycopy(chunk.xs, p, chunk.xs, p + 1, chunk.size - p);
+        System.arraycopy(chunk.ys, p, chunk.ys, p + 1, chunk.size - p);
+        chunk.xs[p] = newX;
+        chunk.ys[p] = point.getY();
+        chunk.size++;
+        pointsCount++;
+        updateStarts(c + 1);
+    }
+
+    // Позиция вставки x в блоке - первая точка с X не меньше x
+    private static int insertPosition(Chunk chunk, double x) {
+        int low = 0;
+        int high = chunk.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunk.xs[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Проверка на дубликат среди соседей позиции вставки p блока c
+    private boolean isDuplicateX(int c, int p, double x) {
+        int index = chunkStarts[c] + p;
+        return (index < pointsCount && Math.abs(getPointX(index) - x) < EPSILON)
+                || (index > 0 && Math.abs(getPointX(index - 1) - x) < EPSILON);
+    }
+
+    /**
+     * Добавляет набор точек. Небольшой набор проверяется на дубликаты
+     * и вставляется по одной точке, крупный - сливается с существующими
+     * точками за один проход, после чего блоки раскладываются заново.
+     * При дубликате функция не изменяется.
+     */
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        double[] addXs = xValues.clone();
+        double[] addYs = yValues.clone();
+        TabulatedFunctions.sortPointBatch(addXs, addYs);
+
+        int count = addXs.length;
+        if ((long) count * (CHUNK_CAPACITY + chunkCount) < pointsCount) {
+            for (int i = 0; i < count; i++) {
+                int c = chunkOfX(addXs[i]);
+                if (isDuplicateX(c, insertPosition(chunks[c], addXs[i]), addXs[i])) {
+                    throw new InappropriateFunctionPointException("Точка с X=" + addXs[i] + " уже существует");
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                addPoint(new FunctionPoint(addXs[i], addYs[i]));
+            }
+            return;
+        }
+
+        // Слияние; каждая записанная точка сравнивается с последней записанной
+        // точкой другого набора - ближайшей к ней слева точкой того набора
+        double[] mergedXs = new double[pointsCount + count];
+        double[] mergedYs = new double[pointsCount + count];
+        double lastExisting = Double.NaN;
+        double lastAdded = Double.NaN;
+        int b = 0;
+        int t = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int p = 0; p < chunk.size; p++) {
+                while (b < count && addXs[b] < chunk.xs[p]) {
+                    lastAdded = addXs[b];
+                    checkMergedPair(lastExisting, lastAdded);
+                    mergedXs[t] = addXs[b];
+                    mergedYs[t++] = addYs[b++];
+                }
+                lastExisting = chunk.xs[p];
+                checkMergedPair(lastExisting, lastAdded);
+                mergedXs[t] = chunk.xs[p];
+                mergedYs[t++] = chunk.ys[p];
+            }
+        }
+        if (b < count) {
+            checkMergedPair(lastExisting, addXs[b]);
+        }
+        System.arraycopy(addXs, b, mergedXs, t, count - b);
+        System.arraycopy(addYs, b, mergedYs, t, count - b);
+        fill(mergedXs, mergedYs);
+    }
+
+    /**
+     * Проверяет соседние при слиянии существующую и добавляемую точки
+     * (NaN - точки ещё не было). Точки каждого набора отстоят друг от друга
+     * не меньше чем на EPSILON, поэтому сравнивать достаточно только соседей
+     */
+    private static void checkMergedPair(double existingX, double addedX) throws InappropriateFunctionPointException {
+        if (Math.abs(existingX - addedX) < EPSILON) {
+            throw new InappropriateFunctionPointException("Точка с X=" + addedX + " уже существует");
+        }
+    }
+
+    // Переносит верхнюю половину блока c в новый блок, вставляемый после него
+    private void splitChunk(int c) {
+        if (chunkCount == chunks.length) {
+            Chunk[] newChunks = new Chunk[chunks.length + chunks.length / 2 + 1];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            chunks = newChunks;
+            int[] newStarts = new int[newChunks.length];
+            System.arraycopy(chunkStarts, 0, newStarts, 0, chunkCount);
+            chunkStarts = newStarts;
+        }
+
+        Chunk chunk = chunks[c];
+        Chunk upper = new Chunk();
+        int half = chunk.size / 2;
+        upper.size = chunk.size - half;
+        System.arraycopy(chunk.xs, half, upper.xs, 0, upper.size);
+        System.arraycopy(chunk.ys, half, upper.ys, 0, upper.size);
+        chunk.size = half;
+
+        System.arraycopy(chunks, c + 1, chunks, c + 2, chunkCount - c - 1);
+        chunks[c + 1] = upper;
+        chunkCount++;
+        updateStarts(c + 1);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        checkIndex(index);
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Нельзя удалить точку - функция должна содержать минимум 3 точки");
+        }
+
+        int c = chunkOfIndex(index);
+        Chunk chunk = chunks[c];
+        int p = index - chunkStarts[c];
+        System.arraycopy(chunk.xs, p + 1, chunk.xs, p, chunk.size - p - 1);
+        System.arraycopy(chunk.ys, p + 1, chunk.ys, p, chunk.size - p - 1);
+        chunk.size--;
+        pointsCount--;
+
+        // Малозаполненный блок сливаем с соседом, если они помещаются в один блок
+        if (chunk.size < CHUNK_CAPACITY / 4 && chunkCount > 1) {
+            int left = c + 1 < chunkCount ? c : c - 1;
+            if (chunks[left].size + chunks[left + 1].size <= CHUNK_CAPACITY) {
+                mergeChunks(left);
+                c = left;
+            }
+        }
+        updateStarts(c);
+    }
+
+    // Переносит точки блока c + 1 в блок c и удаляет блок c + 1
+    private void mergeChunks(int c) {
+        Chunk target = chunks[c];
+        Chunk source = chunks[c + 1];
+        System.arraycopy(source.xs, 0, target.xs, target.size, source.size);
+        System.arraycopy(source.ys, 0, target.ys, target.size, source.size);
+        target.size += source.size;
+
+        System.arraycopy(chunks, c + 2, chunks, c + 1, chunkCount - c - 2);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int p = 0; p < chunk.size; p++) {
+                if (c > 0 || p > 0) sb.append(", ");
+                sb.append('(').append(chunk.xs[p]).append("; ").append(chunk.ys[p]).append(')');
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction other = (TabulatedFunction) o;
+        if (pointsCount != other.getPointsCount()) return false;
+
+        int index = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int p = 0; p < chunk.size; p++, index++) {
+                if (Double.compare(chunk.xs[p], other.getPointX(index)) != 0
+                        || Double.compare(chunk.ys[p], other.getPointY(index)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = pointsCount;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int p = 0; p < chunk.size; p++) {
+                result ^= FunctionPoint.pointHashCode(chunk.xs[p], chunk.ys[p]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ChunkedTabulatedFunction clone() {
+        try {
+            ChunkedTabulatedFunction cloned = (ChunkedTabulatedFunction) super.clone();
+            cloned.chunks = new Chunk[chunks.length];
+            for (int c = 0; c < chunkCount; c++) {
+                cloned.chunks[c] = chunks[c].copy();
+            }
+            cloned.chunkStarts = chunkStarts.clone();
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Клонирование не поддерживается", e);
+        }
+    }
+
+    // Блок точек: первые size элементов массивов заняты и упорядочены по X
+    private static class Chunk implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs = new double[CHUNK_CAPACITY];
+        private final double[] ys = new double[CHUNK_CAPACITY];
+        private int size;
+
+        Chunk copy() {
+            Chunk copy = new Chunk();
+            System.arraycopy(xs, 0, copy.xs, 0, size);
+            System.arraycopy(ys, 0, copy.ys, 0, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Сжатый байтовый формат табулированной функции без потерь.
+ *
+ * Каждая координата предсказывается линейно по двум предыдущим
+ * (разность разностей, delta-of-delta): p = v1 + (v1 - v2). Для гладких
+ * функций и равномерных сеток предсказание совпадает с точным значением
+ * во многих старших битах, и записывается только XOR битов значения и
+ * предсказания в схеме Gorilla:
+ * <ul>
+ * <li>0 - XOR равен нулю;</li>
+ * <li>10 - значащие биты XOR лежат в окне предыдущей записи этой координаты,
+ * записываются биты окна (если это не длиннее записи с новым окном);</li>
+ * <li>11 - 6 бит числа ведущих нулей, 6 бит (длина - 1) и значащие биты.</li>
+ * </ul>
+ *
+ * Формат: int MAGIC, байт версии, int количество точек, затем блоки
+ * по BLOCK_POINTS точек: int длина блока в байтах и сам блок, дополненный
+ * нулевыми битами до целого байта. Блоки позволяют писать и читать поток
+ * частями, не читая лишних байт после функции.
+ * Числа в заголовках - в порядке байтов DataOutputStream (big-endian).
+ */
+final class CompressedTabulatedFormat {
+
+    // "TFZ" и 0: признак сжатого формата
+    static final int MAGIC = 0x54465A00;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+    private static final int BLOCK_POINTS = 4096;
+    // Точка занимает не больше двух записей по 2 + 6 + 6 + 64 бит
+    private static final int MAX_BLOCK_BYTES = BLOCK_POINTS * 2 * 10;
+
+    private static final int LENGTH_BITS = 6;
+
+    private final byte[] bytes = new byte[Integer.BYTES + MAX_BLOCK_BYTES];
+    private int position;
+    private int limit;
+    private long bits;
+    private int bitCount;
+
+    // Окно значащих битов последней записи X и Y; -1, пока окна нет
+    private int xLeading = -1;
+    private int xTrailing;
+    private int yLeading = -1;
+    private int yTrailing;
+
+    private CompressedTabulatedFormat() {
+    }
+
+    /**
+     * Записывает функцию в поток; каждый блок - одна операция записи,
+     * поэтому поток можно не буферизовать
+     */
+    static void write(TabulatedFunction function, OutputStream out) throws IOException {
+        new CompressedTabulatedFormat().encode(function, out);
+    }
+
+    /**
+     * Читает функцию из потока, потребляя ровно её байты
+     */
+    static TabulatedFunction read(InputStream in) throws IOException {
+        return new CompressedTabulatedFormat().decode(in);
+    }
+
+    private void encode(TabulatedFunction function, OutputStream out) throws IOException {
+        int pointsCount = function.getPointsCount();
+        putInt(bytes, 0, MAGIC);
+        bytes[Integer.BYTES] = (byte) VERSION;
+        putInt(bytes, Integer.BYTES + 1, pointsCount);
+        out.write(bytes, 0, HEADER_BYTES);
+
+        long x1 = 0;
+        long x2 = 0;
+        long y1 = 0;
+        long y2 = 0;
+        for (int from = 0; from < pointsCount; from += BLOCK_POINTS) {
+            int to = Math.min(pointsCount, from + BLOCK_POINTS);
+            position = Integer.BYTES;
+            for (int i = from; i < to; i++) {
+                long x = Double.doubleToRawLongBits(function.getPointX(i));
+                long y = Double.doubleToRawLongBits(function.getPointY(i));
+                if (i == 0) {
+                    writeBits(x, 64);
+                    writeBits(y, 64);
+                } else {
+                    long xPredicted = i == 1 ? x1 : predict(x1, x2);
+                    long yPredicted = i == 1 ? y1 : predict(y1, y2);
+                    writeX(x ^ xPredicted);
+                    writeY(y ^ yPredicted);
+                }
+                x2 = x1;
+                x1 = x;
+                y2 = y1;
+                y1 = y;
+            }
+            if (bitCount > 0) {
+                bytes[position++] = (byte) (bits << (8 - bitCount));
+                bitCount = 0;
+            }
+            putInt(bytes, 0, position - Integer.BYTES);
+            out.write(bytes, 0, position);
+        }
+    }
+
+    private TabulatedFunction decode(InputStream in) throws IOException {
+        readFully(in, HEADER_BYTES);
+        int magic = getInt(bytes, 0);
+        if (magic != MAGIC) {
+            throw new IOException("Поток не содержит сжатую табулированную функцию");
+        }
+        int version = bytes[Integer.BYTES] & 0xff;
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия сжатого формата: " + version);
+        }
+        int pointsCount = getInt(bytes, Integer.BYTES + 1);
+        if (pointsCount < 0) {
+            throw new IOException("Некорректное количество точек: " + pointsCount);
+        }
+
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        long x1 = 0;
+        long x2 = 0;
+        long y1 = 0;
+        long y2 = 0;
+        for (int from = 0; from < pointsCount; from += BLOCK_POINTS) {
+            int to = Math.min(pointsCount, from + BLOCK_POINTS);
+            readFully(in, Integer.BYTES);
+            int length = getInt(bytes, 0);
+            if (length < 0 || length > MAX_BLOCK_BYTES) {
+                throw new IOException("Некорректная длина блока сжатого формата: " + length);
+            }
+            readFully(in, length);
+            limit = length;
+            position = 0;
+            bitCount = 0;
+            for (int i = from; i < to; i++) {
+                long x;
+                long y;
+                if (i == 0) {
+                    x = readBits(64);
+                    y = readBits(64);
+                } else {
+                    long xPredicted = i == 1 ? x1 : predict(x1, x2);
+                    long yPredicted = i == 1 ? y1 : predict(y1, y2);
+                    x = readX() ^ xPredicted;
+                    y = readY() ^ yPredicted;
+                }
+                xs[i] = Double.longBitsToDouble(x);
+                ys[i] = Double.longBitsToDouble(y);
+                x2 = x1;
+                x1 = x;
+                y2 = y1;
+                y1 = y;
+            }
+        }
+        return ArrayTabulatedFunction.adoptChecked(xs, ys);
+    }
+
+    /**
+     * Линейное предсказание по двум предыдущим значениям. NaN приводится
+     * к каноническому, чтобы предсказание не зависело от платформы
+     */
+    private static long predict(long previous, long beforePrevious) {
+        double v1 = Double.longBitsToDouble(previous);
+        double v2 = Double.longBitsToDouble(beforePrevious);
+        return Double.doubleToLongBits(v1 + (v1 - v2));
+    }
+
+    // ========== Запись ==========
+
+    private void writeX(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (xLeading >= 0 && leading >= xLeading && trailing >= xTrailing
+                && fitsWindow(leading, trailing, xLeading, xTrailing)) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> xTrailing, 64 - xLeading - xTrailing);
+        } else {
+            writeWindow(xor, leading, trailing);
+            xLeading = leading;
+            xTrailing = trailing;
+        }
+    }
+
+    private void writeY(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (yLeading >= 0 && leading >= yLeading && trailing >= yTrailing
+                && fitsWindow(leading, trailing, yLeading, yTrailing)) {
+            writeBits(0b10, 2);
+            writeBits(xor >>> yTrailing, 64 - yLeading - yTrailing);
+        } else {
+            writeWindow(xor, leading, trailing);
+            yLeading = leading;
+            yTrailing = trailing;
+        }
+    }
+
+    /**
+     * Окно предыдущей записи используется, только если запись в нём
+     * не длиннее записи с новым окном. Иначе одно широкое окно (например,
+     * при смене знака) держалось бы до конца и удлиняло все следующие записи
+     */
+    private static boolean fitsWindow(int leading, int trailing, int windowLeading, int windowTrailing) {
+        int unused = leading - windowLeading + trailing - windowTrailing;
+        return unused <= 2 * LENGTH_BITS;
+    }
+
+    private void writeWindow(long xor, int leading, int trailing) {
+        int significant = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, LENGTH_BITS);
+        writeBits(significant - 1, LENGTH_BITS);
+        writeBits(xor >>> trailing, significant);
+    }
+
+    // Младшие count бит value, старшим битом вперёд
+    private void writeBits(long value, int count) {
+        if (count > 32) {
+            writeBits(value >>> 32, count - 32);
+            count = 32;
+        }
+        // До записи в накопителе меньше 8 бит, поэтому он не переполняется
+        bits = (bits << count) | (value & ((1L << count) - 1));
+        bitCount += count;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            bytes[position++] = (byte) (bits >>> bitCount);
+        }
+    }
+
+    // ========== Чтение ==========
+
+    private long readX() throws IOException {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 0) {
+            if (xLeading < 0) {
+                throw corrupted();
+            }
+            return readBits(64 - xLeading - xTrailing) << xTrailing;
+        }
+        int leading = (int) readBits(LENGTH_BITS);
+        int significant = (int) readBits(LENGTH_BITS) + 1;
+        int trailing = 64 - leading - significant;
+        if (trailing < 0) {
+            throw corrupted();
+        }
+        xLeading = leading;
+        xTrailing = trailing;
+        return readBits(significant) << trailing;
+    }
+
+    private long readY() throws IOException {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 0) {
+            if (yLeading < 0) {
+                throw corrupted();
+            }
+            return readBits(64 - yLeading - yTrailing) << yTrailing;
+        }
+        int leading = (int) readBits(LENGTH_BITS);
+        int significant = (int) readBits(LENGTH_BITS) + 1;
+        int trailing = 64 - leading - significant;
+        if (trailing < 0) {
+            throw corrupted();
+        }
+        yLeading = leading;
+        yTrailing = trailing;
+        return readBits(significant) << trailing;
+    }
+
+    private long readBits(int count) throws IOException {
+        if (count > 32) {
+            long high = readBits(count - 32);
+            return (high << 32) | readBits(32);
+        }
+        // До дозагрузки в накопителе меньше count бит, после - не больше 63
+        while (bitCount < count) {
+            if (position == limit) {
+                throw corrupted();
+            }
+            bits = (bits << 8) | (bytes[position++] & 0xff);
+            bitCount += 8;
+        }
+        bitCount -= count;
+        return (bits >>> bitCount) & ((1L << count) - 1);
+    }
+
+    private static IOException corrupted() {
+        return new IOException("Повреждённый блок сжатого формата");
+    }
+
+    // ========== Байтовые операции ==========
+
+    private void readFully(InputStream in, int length) throws IOException {
+        if (in.readNBytes(bytes, 0, length) < length) {
+            throw new EOFException("Неожиданный конец потока");
+        }
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] source, int offset) {
+        return (source[offset] & 0xff) << 24
+                | (source[offset + 1] & 0xff) << 16
+                | (source[offset + 2] & 0xff) << 8
+                | (source[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,325 @@
+package functions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Потокобезопасная обёртка над табулированной функцией на основе StampedLock.
+ *
+ * Методы изменения точек выполняются под блокировкой записи. Для реализаций,
+ * чтение которых не изменяет их состояние (ArrayTabulatedFunction,
+ * ChunkedTabulatedFunction, MappedTabulatedFunction),
+ * чтение выполняется оптимистично, без записи в общую память: результат
+ * принимается, если за время чтения не было ни одной записи, иначе чтение
+ * повторяется под блокировкой чтения. Поэтому вычисляющие потоки не конкурируют
+ * друг с другом, пока запись редка. Остальные реализации читаются под
+ * разделяемой блокировкой чтения; пока запись ожидает, новые читатели
+ * пропускают её вперёд, иначе непрерывный поток перекрывающихся чтений
+ * мог бы не дать записи выполниться никогда.
+ *
+ * Экземпляры создаются методом TabulatedFunctions.concurrentTabulatedFunction.
+ * Все обращения к обёрнутой функции должны идти через обёртку.
+ */
+public class ConcurrentTabulatedFunction implements TabulatedFunction, Cloneable {
+
+    private final TabulatedFunction function;
+    private final StampedLock lock = new StampedLock();
+    // Количество потоков, ожидающих блокировку записи
+    private final AtomicInteger pendingWriters = new AtomicInteger();
+    private final boolean optimisticReads;
+
+    ConcurrentTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        this.function = function;
+        this.optimisticReads = supportsOptimisticReads(function);
+    }
+
+    /*
+     * Оптимистичное чтение может увидеть функцию в середине изменения,
+     * поэтому оно допустимо только для реализаций, которые при чтении ничего
+     * не записывают и на несогласованном состоянии в худшем случае выбрасывают
+     * исключение, а не зацикливаются. Проверяется точный класс: подкласс мог
+     * переопределить чтение. OffHeapTabulatedFunction сюда не входит: при
+     * перевыделении она сразу освобождает память старых буферов, и оптимистичное
+     * чтение обратилось бы к освобождённой памяти.
+     */
+    private static boolean supportsOptimisticReads(TabulatedFunction function) {
+        Class<?> type = function.getClass();
+        return type == ArrayTabulatedFunction.class
+                || type == ChunkedTabulatedFunction.class
+                || type == MappedTabulatedFunction.class;
+    }
+
+    /*
+     * StampedLock пускает читателя, если запись не удерживается, даже когда
+     * она ожидает. Поэтому при ожидающей записи читатель сначала встаёт в очередь
+     * за ней, коротко захватывая блокировку записи, и лишь потом берёт чтение.
+     */
+    private long readLock() {
+        if (pendingWriters.get() > 0) {
+            lock.unlockWrite(lock.writeLock());
+        }
+        return lock.readLock();
+    }
+
+    private long writeLock() {
+        pendingWriters.incrementAndGet();
+        try {
+            return lock.writeLock();
+        } finally {
+            pendingWriters.decrementAndGet();
+        }
+    }
+
+    // Чтение значения: сначала оптимистично, при конфликте с записью - под блокировкой чтения
+    private double readDouble(DoubleSupplier reader) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    double result = reader.getAsDouble();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    // Исключение на несогласованном состоянии не считается результатом
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        long stamp = readLock();
+        try {
+            return reader.getAsDouble();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int readInt(IntSupplier reader) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    int result = reader.getAsInt();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        long stamp = readLock();
+        try {
+            return reader.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    T result = reader.get();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        long stamp = readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return readDouble(function::getLeftDomainBorder);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return readDouble(function::getRightDomainBorder);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        return readDouble(() -> function.getFunctionValue(x));
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов как одно согласованное
+     * чтение: все значения относятся к одному и тому же состоянию функции.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        if (optimisticReads) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                // При совпадении массивов неудачная попытка испортила бы аргументы
+                double[] target = out == xValues ? new double[xValues.length] : out;
+                try {
+                    function.getFunctionValues(xValues, target);
+                    if (lock.validate(stamp)) {
+                        if (target != out) {
+                            System.arraycopy(target, 0, out, 0, target.length);
+                        }
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        long stamp = readLock();
+        try {
+            function.getFunctionValues(xValues, out);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int getPointsCount() {
+        return readInt(function::getPointsCount);
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        return read(() -> function.getPoint(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = writeLock();
+        try {
+            function.setPoint(index, point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public double getPointX(int index) {
+        return readDouble(() -> function.getPointX(index));
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        long stamp = writeLock();
+        try {
+            function.setPointX(index, x);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public double getPointY(int index) {
+        return readDouble(() -> function.getPointY(index));
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        long stamp = writeLock();
+        try {
+            function.setPointY(index, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long stamp = writeLock();
+        try {
+            function.addPoint(point);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        long stamp = writeLock();
+        try {
+            function.addPoints(points);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        long stamp = writeLock();
+        try {
+            function.addPoints(xValues, yValues);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        long stamp = writeLock();
+        try {
+            function.deletePoint(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return read(function::toString);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return read(() -> function.equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+        return readInt(function::hashCode);
+    }
+
+    /**
+     * Возвращает новую потокобезопасную обёртку над копией функции
+     * со своей блокировкой.
+     */
+    @Override
+    public ConcurrentTabulatedFunction clone() {
+        long stamp = readLock();
+        try {
+            return new ConcurrentTabulatedFunction((TabulatedFunction) function.clone());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -10,4 +10,30 @@ public interface Function {
     double getRightDomainBorder();
 
     double getFunctionValue(double x);
+    
+    /**
+     * Вычисляет значение функции без проверки принадлежности аргумента области определения.
+     * Предназначен для вызывающего кода, который уже убедился, что
+     * getLeftDomainBorder() <= x <= getRightDomainBorder(); для других x результат не определён.
+     * Реализация по умолчанию вызывает getFunctionValue.
+     * @param x аргумент функции из области определения
+     * @return значение функции
+     */
+    default double getFunctionValueUnchecked(double x) {
+        return getFunctionValue(x);
+    }
+    
+    /**
+     * Вычисляет значения функции сразу для массива аргументов.
+     * Значение в точке xs[i] записывается в out[i], длина out должна быть не меньше длины xs.
+     * Массив out может совпадать с xs - тогда аргументы заменяются значениями.
+     * Реализация по умолчанию вызывает getFunctionValue для каждого аргумента.
+     * @param xs аргументы функции
+     * @param out массив для значений функции
+     */
+    default void getFunctionValues(double[] xs, double[] out) {
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
 }
@@ -0,0 +1,490 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Компилятор дерева функций в цепочку MethodHandle.
+ *
+ * Каждый узел functions.basic и functions.meta превращается в статическое ядро,
+ * к которому через MethodHandles.insertArguments привязаны дескрипторы дочерних
+ * узлов и параметры узла. Получающийся дескриптор не содержит виртуальных вызовов
+ * Function: после того как вызов станет горячим, JIT специализирует цепочку под
+ * конкретный дескриптор и встраивает все ядра в один метод, тогда как при обходе
+ * дерева вызовы getFunctionValue в узлах мета-функций остаются мегаморфными.
+ * JIT встраивает цепочку, только если корневой дескриптор для него константа,
+ * поэтому для каждой компиляции определяется свой скрытый класс, в static final
+ * поле которого лежит корневой дескриптор (см. ConstantRootFunction).
+ *
+ * Семантика полностью повторяет getFunctionValue исходных узлов, включая проверки
+ * областей определения и обработку NaN. Границы областей определения поддеревьев
+ * из одних базовых функций не меняются и встраиваются как константы; для поддеревьев
+ * с другими функциями (например, табулированными) границы запрашиваются при каждом
+ * вычислении, поэтому изменение точек табулированной функции остаётся видимым.
+ * Функции других классов, а также подклассы базовых и мета-функций, вызываются
+ * как есть через свой getFunctionValue.
+ */
+final class FunctionCompiler {
+
+    private static final MethodHandle SUM;
+    private static final MethodHandle MULT;
+    private static final MethodHandle POWER;
+    private static final MethodHandle INTEGER_POWER;
+    private static final MethodHandle SCALE;
+    private static final MethodHandle SHIFT;
+    private static final MethodHandle COMPOSITION;
+    private static final MethodHandle SIN;
+    private static final MethodHandle COS;
+    private static final MethodHandle TAN;
+    private static final MethodHandle EXP;
+    private static final MethodHandle LOG;
+    private static final MethodHandle MULTIPLY;
+    private static final MethodHandle FUNCTION_VALUE;
+    private static final MethodHandle LEFT_BORDER;
+    private static final MethodHandle RIGHT_BORDER;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType border = MethodType.methodType(double.class);
+        MethodType unary = MethodType.methodType(double.class, double.class);
+        try {
+            SUM = lookup.findStatic(FunctionCompiler.class, "sum", MethodType.methodType(double.class,
+                    MethodHandle.class, MethodHandle.class, MethodHandle.class, MethodHandle.class, double.class));
+            MULT = lookup.findStatic(FunctionCompiler.class, "mult", SUM.type());
+            POWER = lookup.findStatic(FunctionCompiler.class, "power", MethodType.methodType(double.class,
+                    MethodHandle.class, MethodHandle.class, MethodHandle.class, double.class, double.class));
+            INTEGER_POWER = lookup.findStatic(FunctionCompiler.class, "integerPower", MethodType.methodType(double.class,
+                    MethodHandle.class, MethodHandle.class, MethodHandle.class, int.class, double.class));
+            SCALE = lookup.findStatic(FunctionCompiler.class, "scale", MethodType.methodType(double.class,
+                    MethodHandle.class, MethodHandle.class, MethodHandle.class, MethodHandle.class, MethodHandle.class,
+                    double.class, double.class, double.class));
+            SHIFT = lookup.findStatic(FunctionCompiler.class, "shift", SCALE.type());
+            COMPOSITION = lookup.findStatic(FunctionCompiler.class, "composition", MethodType.methodType(double.class,
+                    MethodHandle.class, MethodHandle.class, MethodHandle.class, MethodHandle.class,
+                    MethodHandle.class, MethodHandle.class, double.class));
+            SIN = lookup.findStatic(Math.class, "sin", unary);
+            COS = lookup.findStatic(Math.class, "cos", unary);
+            TAN = lookup.findStatic(FunctionCompiler.class, "tan", unary);
+            EXP = lookup.findStatic(Math.class, "exp", unary);
+            LOG = lookup.findStatic(FunctionCompiler.class, "log",
+                    MethodType.methodType(double.class, double.class, double.class));
+            MULTIPLY = lookup.findStatic(FunctionCompiler.class, "multiply",
+                    MethodType.methodType(double.class, double.class, double.class));
+            FUNCTION_VALUE = lookup.findVirtual(Function.class, "getFunctionValue", unary);
+            LEFT_BORDER = lookup.findVirtual(Function.class, "getLeftDomainBorder", border);
+            RIGHT_BORDER = lookup.findVirtual(Function.class, "getRightDomainBorder", border);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Байты шаблона скрытого класса; null, если class-файл недоступен как ресурс
+    private static final byte[] ROOT_TEMPLATE = readRootTemplate();
+    private static final MethodType ROOT_CONSTRUCTOR =
+            MethodType.methodType(void.class, Function.class, MethodHandle.class, boolean.class);
+
+    // Уже скомпилированные узлы: общее поддерево компилируется один раз
+    private final Map<Function, Compiled> compiled = new IdentityHashMap<>();
+
+    private FunctionCompiler() {
+    }
+
+    /**
+     * Компилирует функцию в вычислитель с той же семантикой
+     * @param function исходная функция
+     * @return скомпилированная функция
+     */
+    static Function compile(Function function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (function instanceof CompiledFunction) {
+            return function;
+        }
+
+        Compiled root = new FunctionCompiler().compileNode(function);
+        return newCompiledFunction(function, root.value, root.fixedDomain);
+    }
+
+    private static byte[] readRootTemplate() {
+        try (InputStream in = FunctionCompiler.class.getResourceAsStream(
+                "FunctionCompiler$ConstantRootFunction.class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Создаёт экземпляр нового скрытого класса по шаблону ConstantRootFunction
+     * с корневым дескриптором в данных класса. Скрытый класс выгружается вместе
+     * с последним экземпляром. Без шаблона дескриптор хранится в поле экземпляра
+     */
+    private static CompiledFunction newCompiledFunction(Function source, MethodHandle handle, boolean fixedDomain) {
+        if (ROOT_TEMPLATE == null) {
+            return new CompiledFunction(source, handle, fixedDomain);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(ROOT_TEMPLATE, handle, true);
+            MethodHandle constructor = lookup.findConstructor(lookup.lookupClass(), ROOT_CONSTRUCTOR);
+            return (CompiledFunction) constructor.invoke(source, handle, fixedDomain);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось создать скомпилированную функцию", e);
+        }
+    }
+
+    // Результат компиляции узла: дескриптор значения (double)double и границы области определения ()double
+    private static final class Compiled {
+        final MethodHandle value;
+        final MethodHandle left;
+        final MethodHandle right;
+        // Границы не зависят от изменяемых функций и встроены как константы
+        final boolean fixedDomain;
+
+        Compiled(Function function, MethodHandle value, boolean fixedDomain) {
+            this.value = value;
+            this.fixedDomain = fixedDomain;
+            this.left = leftBorder(function, fixedDomain);
+            this.right = rightBorder(function, fixedDomain);
+        }
+    }
+
+    // Левая граница узла: константа или запрос к самому узлу
+    private static MethodHandle leftBorder(Function function, boolean fixedDomain) {
+        return fixedDomain
+                ? MethodHandles.constant(double.class, function.getLeftDomainBorder())
+                : LEFT_BORDER.bindTo(function);
+    }
+
+    private static MethodHandle rightBorder(Function function, boolean fixedDomain) {
+        return fixedDomain
+                ? MethodHandles.constant(double.class, function.getRightDomainBorder())
+                : RIGHT_BORDER.bindTo(function);
+    }
+
+    // Ядро базовой функции по её точности; область определения не меняется
+    private static Compiled basic(Function function, Precision precision,
+                                  MethodHandle full, MethodHandle high, MethodHandle fast) {
+        MethodHandle kernel = precision == Precision.FAST ? fast : precision == Precision.HIGH ? high : full;
+        return new Compiled(function, kernel, true);
+    }
+
+    private Compiled compileNode(Function function) {
+        Compiled result = compiled.get(function);
+        if (result == null) {
+            result = translate(function);
+            compiled.put(function, result);
+        }
+        return result;
+    }
+
+    private Compiled translate(Function function) {
+        Class<?> type = function.getClass();
+
+        if (type == Sin.class) {
+            return basic(function, ((Sin) function).getPrecision(), SIN, FastKernelHandles.sinHigh(),
+                    FastKernelHandles.sin());
+        }
+        if (type == Cos.class) {
+            return basic(function, ((Cos) function).getPrecision(), COS, FastKernelHandles.cosHigh(),
+                    FastKernelHandles.cos());
+        }
+        if (type == Tan.class) {
+            return basic(function, ((Tan) function).getPrecision(), TAN, FastKernelHandles.tanHigh(),
+                    FastKernelHandles.tan());
+        }
+        if (type == Exp.class) {
+            // Экспонента и логарифм с точностью HIGH вычисляются как FULL
+            return basic(function, ((Exp) function).getPrecision(), EXP, EXP, FastKernelHandles.exp());
+        }
+        if (type == Constant.class) {
+            MethodHandle value = MethodHandles.constant(double.class, ((Constant) function).getValue());
+            return new Compiled(function, MethodHandles.dropArguments(value, 0, double.class), true);
+        }
+        if (type == Log.class) {
+            Log log = (Log) function;
+            double logBase = Math.log(log.getBase());
+            // Как в Log.getFunctionValue: быстрый логарифм умножается на 1/ln(base)
+            MethodHandle fast = MethodHandles.filterReturnValue(FastKernelHandles.log(),
+                    MethodHandles.insertArguments(MULTIPLY, 0, 1.0 / logBase));
+            MethodHandle full = MethodHandles.insertArguments(LOG, 0, logBase);
+            return basic(function, log.getPrecision(), full, full, fast);
+        }
+
+        if (type == Sum.class || type == Mult.class) {
+            Compiled f;
+            Compiled g;
+            if (type == Sum.class) {
+                f = compileNode(((Sum) function).getFirstFunction());
+                g = compileNode(((Sum) function).getSecondFunction());
+            } else {
+                f = compileNode(((Mult) function).getFirstFunction());
+                g = compileNode(((Mult) function).getSecondFunction());
+            }
+            boolean fixed = f.fixedDomain && g.fixedDomain;
+            MethodHandle kernel = type == Sum.class ? SUM : MULT;
+            return new Compiled(function,
+                    MethodHandles.insertArguments(kernel, 0, f.value, g.value,
+                            leftBorder(function, fixed), rightBorder(function, fixed)),
+                    fixed);
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            Compiled f = compileNode(power.getFunction());
+            return new Compiled(function,
+                    MethodHandles.insertArguments(POWER, 0, f.value, f.left, f.right, power.getPower()),
+                    f.fixedDomain);
+        }
+        if (type == IntegerPower.class) {
+            IntegerPower power = (IntegerPower) function;
+            Compiled f = compileNode(power.getFunction());
+            return new Compiled(function,
+                    MethodHandles.insertArguments(INTEGER_POWER, 0, f.value, f.left, f.right, power.getPower()),
+                    f.fixedDomain);
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            Compiled f = compileNode(scale.getFunction());
+            return new Compiled(function,
+                    MethodHandles.insertArguments(SCALE, 0, f.value,
+                            leftBorder(function, f.fixedDomain), rightBorder(function, f.fixedDomain),
+                            f.left, f.right, scale.getScaleX(), scale.getScaleY()),
+                    f.fixedDomain);
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            Compiled f = compileNode(shift.getFunction());
+            return new Compiled(function,
+                    MethodHandles.insertArguments(SHIFT, 0, f.value,
+                            leftBorder(function, f.fixedDomain), rightBorder(function, f.fixedDomain),
+                            f.left, f.right, shift.getShiftX(), shift.getShiftY()),
+                    f.fixedDomain);
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Compiled f = compileNode(composition.getInnerFunction());
+            Compiled g = compileNode(composition.getOuterFunction());
+            return new Compiled(function,
+                    MethodHandles.insertArguments(COMPOSITION, 0, f.value, g.value, f.left, f.right, g.left, g.right),
+                    f.fixedDomain);
+        }
+        if (type == Shared.class) {
+            // Общий узел уже компилируется один раз; запоминание значений в
+            // скомпилированном коде дороже повторного вычисления
+            return compileNode(((Shared) function).getFunction());
+        }
+
+        // Прочие функции вызываются через свой метод
+        return new Compiled(function, FUNCTION_VALUE.bindTo(function), false);
+    }
+
+    // ========== Ядра узлов; повторяют getFunctionValue соответствующих классов ==========
+
+    private static double sum(MethodHandle f, MethodHandle g, MethodHandle left, MethodHandle right, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+        return (double) f.invokeExact(x) + (double) g.invokeExact(x);
+    }
+
+    private static double mult(MethodHandle f, MethodHandle g, MethodHandle left, MethodHandle right, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+        return (double) f.invokeExact(x) * (double) g.invokeExact(x);
+    }
+
+    private static double power(MethodHandle f, MethodHandle left, MethodHandle right, double power, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+        double value = (double) f.invokeExact(x);
+        if (Double.isNaN(value)) {
+            return Double.NaN;
+        }
+        return Math.pow(value, power);
+    }
+
+    private static double integerPower(MethodHandle f, MethodHandle left, MethodHandle right, int power, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+        double value = (double) f.invokeExact(x);
+        if (Double.isNaN(value)) {
+            return Double.NaN;
+        }
+        return IntegerPower.pow(value, power);
+    }
+
+    private static double scale(MethodHandle f, MethodHandle left, MethodHandle right,
+                                MethodHandle fLeft, MethodHandle fRight, double scaleX, double scaleY, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+        if (scaleX == 0) {
+            // scaleY * NaN = NaN, отдельная проверка значения не нужна
+            return scaleY * (double) f.invokeExact(0.0);
+        }
+
+        double innerX = scaleX * x;
+        if (innerX < (double) fLeft.invokeExact() || innerX > (double) fRight.invokeExact()) {
+            return Double.NaN;
+        }
+        return scaleY * (double) f.invokeExact(innerX);
+    }
+
+    private static double shift(MethodHandle f, MethodHandle left, MethodHandle right,
+                                MethodHandle fLeft, MethodHandle fRight, double shiftX, double shiftY, double x)
+            throws Throwable {
+        if (x < (double) left.invokeExact() || x > (double) right.invokeExact()) {
+            return Double.NaN;
+        }
+
+        double innerX = x + shiftX;
+        if (innerX < (double) fLeft.invokeExact() || innerX > (double) fRight.invokeExact()) {
+            return Double.NaN;
+        }
+        return (double) f.invokeExact(innerX) + shiftY;
+    }
+
+    private static double composition(MethodHandle f, MethodHandle g, MethodHandle fLeft, MethodHandle fRight,
+                                      MethodHandle gLeft, MethodHandle gRight, double x) throws Throwable {
+        if (x < (double) fLeft.invokeExact() || x > (double) fRight.invokeExact()) {
+            return Double.NaN;
+        }
+
+        double innerValue = (double) f.invokeExact(x);
+        if (Double.isNaN(innerValue)) {
+            return Double.NaN;
+        }
+        if (innerValue < (double) gLeft.invokeExact() || innerValue > (double) gRight.invokeExact()) {
+            return Double.NaN;
+        }
+        return (double) g.invokeExact(innerValue);
+    }
+
+    private static double tan(double x) {
+        if (Math.abs(Math.cos(x)) < 1e-10) {
+            return Double.NaN;
+        }
+        return Math.tan(x);
+    }
+
+    private static double log(double logBase, double x) {
+        if (x <= 0) {
+            return Double.NaN;
+        }
+        return Math.log(x) / logBase;
+    }
+
+    private static double multiply(double factor, double value) {
+        return factor * value;
+    }
+
+    /**
+     * Функция, вычисляемая скомпилированным дескриптором.
+     * Границы области определения берутся у исходной функции.
+     * Дескриптор в поле экземпляра JIT не встраивает; этот класс используется,
+     * только если шаблон скрытого класса недоступен.
+     */
+    static class CompiledFunction implements Function {
+        private final Function source;
+        private final MethodHandle handle;
+        private final boolean fixedDomain;
+        private final double left;
+        private final double right;
+
+        CompiledFunction(Function source, MethodHandle handle, boolean fixedDomain) {
+            this.source = source;
+            this.handle = handle;
+            this.fixedDomain = fixedDomain;
+            this.left = source.getLeftDomainBorder();
+            this.right = source.getRightDomainBorder();
+        }
+
+        /**
+         * Возвращает исходную функцию
+         * @return исходная функция
+         */
+        Function getSource() {
+            return source;
+        }
+
+        @Override
+        public double getLeftDomainBorder() {
+            return fixedDomain ? left : source.getLeftDomainBorder();
+        }
+
+        @Override
+        public double getRightDomainBorder() {
+            return fixedDomain ? right : source.getRightDomainBorder();
+        }
+
+        @Override
+        public double getFunctionValue(double x) {
+            try {
+                return (double) handle.invokeExact(x);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return source.toString();
+        }
+    }
+
+    /**
+     * Шаблон скрытого класса: функция с корневым дескриптором в static final
+     * поле. Такое поле JIT считает константой, поэтому вызов invokeExact в
+     * getFunctionValue встраивается вместе со всей цепочкой ядер. Класс сам
+     * по себе не загружается: каждая компиляция определяет по его байтам
+     * новый скрытый класс, и дескриптор берётся из данных этого класса.
+     */
+    static final class ConstantRootFunction extends CompiledFunction {
+        private static final MethodHandle ROOT = root();
+
+        ConstantRootFunction(Function source, MethodHandle handle, boolean fixedDomain) {
+            super(source, handle, fixedDomain);
+        }
+
+        private static MethodHandle root() {
+            try {
+                return MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+            } catch (IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @Override
+        public double getFunctionValue(double x) {
+            try {
+                return (double) ROOT.invokeExact(x);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
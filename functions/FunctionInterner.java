@@ -0,0 +1,285 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Пул канонических узлов для графов функций (hash-consing).
+ *
+ * Одинаковые по структуре поддеревья из базовых и мета-функций заменяются
+ * одним каноническим объектом, в том числе между разными графами,
+ * прошедшими через один пул. Прочие функции (например, табулированные)
+ * изменяемы, поэтому считаются одинаковыми, только если это один и тот же
+ * объект. Узлы, на которые в результате ссылаются несколько узлов графа,
+ * оборачиваются в Shared и вычисляются один раз на аргумент.
+ *
+ * Пул хранит ссылки на все канонические узлы, пока существует сам.
+ */
+public final class FunctionInterner {
+
+    // Канонические узлы по структуре; дочерние узлы ключа уже канонические
+    private final Map<Key, Function> pool = new HashMap<>();
+
+    /**
+     * Интернирует граф функций
+     * @param function исходная функция
+     * @return функция с общими узлами вместо одинаковых поддеревьев
+     */
+    public synchronized Function intern(Function function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        Function root = canonical(function, new IdentityHashMap<>());
+
+        Map<Function, Integer> references = new IdentityHashMap<>();
+        countReferences(root, references);
+        return share(root, references, new IdentityHashMap<>(), new IdentityHashMap<>());
+    }
+
+    /**
+     * Возвращает количество канонических узлов в пуле
+     * @return размер пула
+     */
+    public synchronized int size() {
+        return pool.size();
+    }
+
+    private Function canonical(Function function, Map<Function, Function> visited) {
+        Function result = visited.get(function);
+        if (result == null) {
+            result = intern(function, visited);
+            visited.put(function, result);
+        }
+        return result;
+    }
+
+    // Подклассы могли изменить поведение, поэтому проверяется точный класс
+    private Function intern(Function function, Map<Function, Function> visited) {
+        Class<?> type = function.getClass();
+
+        if (type == Sin.class || type == Cos.class || type == Tan.class) {
+            Precision precision = ((TrigonometricFunction) function).getPrecision();
+            return pooled(new Key(type, precision.ordinal(), 0, null, null), function);
+        }
+        if (type == Exp.class) {
+            return pooled(new Key(type, ((Exp) function).getPrecision().ordinal(), 0, null, null), function);
+        }
+        if (type == Log.class) {
+            Log log = (Log) function;
+            return pooled(new Key(type, log.getBase(), log.getPrecision().ordinal(), null, null), function);
+        }
+        if (type == Constant.class) {
+            return pooled(new Key(type, ((Constant) function).getValue(), 0, null, null), function);
+        }
+        // Обёртка общего узла снимается: общие узлы расставляются заново
+        if (type == Shared.class) {
+            return canonical(((Shared) function).getFunction(), visited);
+        }
+
+        Function[] children = children(function);
+        if (children == null) {
+            return function;
+        }
+        Function first = canonical(children[0], visited);
+        Function second = children.length > 1 ? canonical(children[1], visited) : null;
+        Key key = new Key(type, firstParameter(function), secondParameter(function), first, second);
+
+        Function result = pool.get(key);
+        if (result == null) {
+            result = first == children[0] && (second == null || second == children[1])
+                    ? function : rebuild(function, first, second);
+            pool.put(key, result);
+        }
+        return result;
+    }
+
+    private Function pooled(Key key, Function function) {
+        Function result = pool.get(key);
+        if (result == null) {
+            result = function;
+            pool.put(key, result);
+        }
+        return result;
+    }
+
+    private static void countReferences(Function function, Map<Function, Integer> references) {
+        Integer count = references.get(function);
+        references.put(function, count == null ? 1 : count + 1);
+        if (count != null) {
+            return;
+        }
+        Function[] children = children(function);
+        if (children != null) {
+            for (Function child : children) {
+                countReferences(child, references);
+            }
+        }
+    }
+
+    /*
+     * Оборачивает в Shared мета-узлы, на которые ссылаются несколько узлов.
+     * Запоминать значения можно, только если они не меняются со временем:
+     * поддерево не содержит табулированных и прочих изменяемых функций.
+     */
+    private static Function share(Function function, Map<Function, Integer> references,
+                                  Map<Function, Function> shared, Map<Function, Boolean> immutable) {
+        Function result = shared.get(function);
+        if (result != null) {
+            return result;
+        }
+
+        Function[] children = children(function);
+        boolean isImmutable;
+        if (children == null) {
+            result = function;
+            isImmutable = isBasic(function);
+        } else {
+            Function first = share(children[0], references, shared, immutable);
+            Function second = children.length > 1 ? share(children[1], references, shared, immutable) : null;
+            result = first == children[0] && (second == null || second == children[1])
+                    ? function : rebuild(function, first, second);
+
+            isImmutable = immutable.get(children[0])
+                    && (children.length == 1 || immutable.get(children[1]));
+            if (isImmutable && references.get(function) > 1) {
+                result = new Shared(result);
+            }
+        }
+
+        immutable.put(function, isImmutable);
+        shared.put(function, result);
+        return result;
+    }
+
+    private static boolean isBasic(Function function) {
+        Class<?> type = function.getClass();
+        return type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class
+                || type == Log.class || type == Constant.class;
+    }
+
+    // Дочерние функции мета-функции; null для остальных функций
+    private static Function[] children(Function function) {
+        Class<?> type = function.getClass();
+        if (type == Sum.class) {
+            return new Function[] {((Sum) function).getFirstFunction(), ((Sum) function).getSecondFunction()};
+        }
+        if (type == Mult.class) {
+            return new Function[] {((Mult) function).getFirstFunction(), ((Mult) function).getSecondFunction()};
+        }
+        if (type == Composition.class) {
+            return new Function[] {((Composition) function).getInnerFunction(),
+                    ((Composition) function).getOuterFunction()};
+        }
+        if (type == Power.class) {
+            return new Function[] {((Power) function).getFunction()};
+        }
+        if (type == IntegerPower.class) {
+            return new Function[] {((IntegerPower) function).getFunction()};
+        }
+        if (type == Scale.class) {
+            return new Function[] {((Scale) function).getFunction()};
+        }
+        if (type == Shift.class) {
+            return new Function[] {((Shift) function).getFunction()};
+        }
+        return null;
+    }
+
+    private static double firstParameter(Function function) {
+        Class<?> type = function.getClass();
+        if (type == Power.class) {
+            return ((Power) function).getPower();
+        }
+        if (type == IntegerPower.class) {
+            return ((IntegerPower) function).getPower();
+        }
+        if (type == Scale.class) {
+            return ((Scale) function).getScaleX();
+        }
+        if (type == Shift.class) {
+            return ((Shift) function).getShiftX();
+        }
+        return 0;
+    }
+
+    private static double secondParameter(Function function) {
+        Class<?> type = function.getClass();
+        if (type == Scale.class) {
+            return ((Scale) function).getScaleY();
+        }
+        if (type == Shift.class) {
+            return ((Shift) function).getShiftY();
+        }
+        return 0;
+    }
+
+    // Узел того же вида и с теми же параметрами над другими дочерними функциями
+    private static Function rebuild(Function function, Function first, Function second) {
+        Class<?> type = function.getClass();
+        if (type == Sum.class) {
+            return new Sum(first, second);
+        }
+        if (type == Mult.class) {
+            return new Mult(first, second);
+        }
+        if (type == Composition.class) {
+            return new Composition(first, second);
+        }
+        if (type == Power.class) {
+            return new Power(first, ((Power) function).getPower());
+        }
+        if (type == IntegerPower.class) {
+            return new IntegerPower(first, ((IntegerPower) function).getPower());
+        }
+        if (type == Scale.class) {
+            return new Scale(first, ((Scale) function).getScaleX(), ((Scale) function).getScaleY());
+        }
+        return new Shift(first, ((Shift) function).getShiftX(), ((Shift) function).getShiftY());
+    }
+
+    /**
+     * Структура узла: вид, параметры и канонические дочерние узлы,
+     * которые сравниваются по ссылке
+     */
+    private static final class Key {
+        private final Class<?> type;
+        private final double first;
+        private final double second;
+        private final Function firstChild;
+        private final Function secondChild;
+
+        Key(Class<?> type, double first, double second, Function firstChild, Function secondChild) {
+            this.type = type;
+            this.first = first;
+            this.second = second;
+            this.firstChild = firstChild;
+            this.secondChild = secondChild;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return type == that.type
+                    && Double.compare(first, that.first) == 0
+                    && Double.compare(second, that.second) == 0
+                    && firstChild == that.firstChild
+                    && secondChild == that.secondChild;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.getName().hashCode();
+            result = 31 * result + Double.hashCode(first);
+            result = 31 * result + Double.hashCode(second);
+            result = 31 * result + System.identityHashCode(firstChild);
+            result = 31 * result + System.identityHashCode(secondChild);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package functions;
+
+import functions.basic.*;
+import functions.meta.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Алгебраическое упрощение дерева мета-функций перед вычислением.
+ *
+ * Правила применяются снизу вверх:
+ * <ul>
+ *   <li>Scale(Scale(f, a1, b1), a2, b2) = Scale(f, a1 * a2, b1 * b2) при ненулевых a1, a2;</li>
+ *   <li>Shift(Shift(f, x1, y1), x2, y2) = Shift(f, x1 + x2, y1 + y2);</li>
+ *   <li>Power(Power(f, p), q) = Power(f, p * q) при целых положительных p и q;</li>
+ *   <li>Scale(f, 1, 1) и Power(f, 1) заменяются на f;</li>
+ *   <li>небольшие целые степени заменяются на IntegerPower (умножения вместо Math.pow);</li>
+ *   <li>Mult(f, c) = Scale(f, 1, c) для постоянной c;</li>
+ *   <li>поддеревья, не зависящие от аргумента, сворачиваются в Constant.</li>
+ * </ul>
+ * Сдвиги по X не создаются и не удаляются: Shift вычисляет f(x + shiftX),
+ * а -0.0 + 0.0 = +0.0, поэтому Sum(f, c) остаётся суммой, а Shift(f, 0, 0) - в дереве.
+ * Области определения сохраняются, значения могут отличаться в последних разрядах
+ * из-за другого порядка округлений. Табулированные и прочие функции не изменяются
+ * и остаются в дереве теми же объектами, поэтому изменения их точек видны
+ * упрощённому дереву. Неизменённые узлы также не пересоздаются.
+ */
+public final class FunctionOptimizer {
+
+    // Наибольшая по модулю степень, вычисляемая умножениями
+    private static final int MAX_INTEGER_POWER = 16;
+
+    // Уже упрощённые узлы: общее поддерево упрощается один раз
+    private final Map<Function, Function> optimized = new IdentityHashMap<>();
+
+    private FunctionOptimizer() {
+    }
+
+    /**
+     * Упрощает дерево функций
+     * @param function исходная функция
+     * @return результат упрощения с отчётом о количестве узлов
+     */
+    public static Result optimize(Function function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        Function result = new FunctionOptimizer().visit(function);
+        return new Result(result, countNodes(function), countNodes(result));
+    }
+
+    private Function visit(Function function) {
+        Function result = optimized.get(function);
+        if (result == null) {
+            result = rewrite(function);
+            optimized.put(function, result);
+        }
+        return result;
+    }
+
+    // Подклассы мета-функций могли изменить поведение, поэтому проверяется точный класс
+    private Function rewrite(Function function) {
+        Class<?> type = function.getClass();
+
+        if (type == Sum.class) {
+            Sum sum = (Sum) function;
+            Function f = visit(sum.getFirstFunction());
+            Function g = visit(sum.getSecondFunction());
+            if (isConstant(f) && isConstant(g)) {
+                return new Constant(value(f) + value(g));
+            }
+            return f == sum.getFirstFunction() && g == sum.getSecondFunction() ? sum : new Sum(f, g);
+        }
+        if (type == Mult.class) {
+            Mult mult = (Mult) function;
+            Function f = visit(mult.getFirstFunction());
+            Function g = visit(mult.getSecondFunction());
+            if (isConstant(f) && isConstant(g)) {
+                return new Constant(value(f) * value(g));
+            }
+            if (isConstant(g)) {
+                return scale(f, 1, value(g));
+            }
+            if (isConstant(f)) {
+                return scale(g, 1, value(f));
+            }
+            return f == mult.getFirstFunction() && g == mult.getSecondFunction() ? mult : new Mult(f, g);
+        }
+        if (type == Power.class) {
+            Power power = (Power) function;
+            Function f = visit(power.getFunction());
+            Function result = power(f, power.getPower());
+            return result instanceof Power && ((Power) result).getFunction() == power.getFunction()
+                    && ((Power) result).getPower() == power.getPower() ? power : result;
+        }
+        if (type == IntegerPower.class) {
+            IntegerPower power = (IntegerPower) function;
+            Function f = visit(power.getFunction());
+            Function result = power(f, power.getPower());
+            return result instanceof IntegerPower && ((IntegerPower) result).getFunction() == power.getFunction()
+                    && ((IntegerPower) result).getPower() == power.getPower() ? power : result;
+        }
+        if (type == Scale.class) {
+            Scale scale = (Scale) function;
+            Function f = visit(scale.getFunction());
+            Function result = scale(f, scale.getScaleX(), scale.getScaleY());
+            return result instanceof Scale && ((Scale) result).getFunction() == scale.getFunction()
+                    && sameParameters((Scale) result, scale) ? scale : result;
+        }
+        if (type == Shift.class) {
+            Shift shift = (Shift) function;
+            Function f = visit(shift.getFunction());
+            Function result = shift(f, shift.getShiftX(), shift.getShiftY());
+            return result instanceof Shift && ((Shift) result).getFunction() == shift.getFunction()
+                    && sameParameters((Shift) result, shift) ? shift : result;
+        }
+        if (type == Composition.class) {
+            Composition composition = (Composition) function;
+            Function f = visit(composition.getInnerFunction());
+            Function g = visit(composition.getOuterFunction());
+            Function result = f == composition.getInnerFunction() && g == composition.getOuterFunction()
+                    ? composition : new Composition(f, g);
+            // Постоянная внутренняя функция даёт область определения (-∞, +∞) и постоянное значение
+            if (isConstant(f) && isImmutable(g)) {
+                return new Constant(result.getFunctionValue(0));
+            }
+            return result;
+        }
+        if (type == Shared.class) {
+            Shared shared = (Shared) function;
+            Function f = visit(shared.getFunction());
+            // Запоминать постоянное значение незачем
+            if (isConstant(f)) {
+                return f;
+            }
+            return f == shared.getFunction() ? shared : new Shared(f);
+        }
+
+        return function;
+    }
+
+    private Function shift(Function f, double shiftX, double shiftY) {
+        if (isConstant(f)) {
+            return new Constant(value(f) + shiftY);
+        }
+        if (f.getClass() == Shift.class) {
+            Shift inner = (Shift) f;
+            return shift(inner.getFunction(), inner.getShiftX() + shiftX, inner.getShiftY() + shiftY);
+        }
+        return new Shift(f, shiftX, shiftY);
+    }
+
+    private Function scale(Function f, double scaleX, double scaleY) {
+        if (scaleX == 1 && scaleY == 1) {
+            return f;
+        }
+        if (isConstant(f)) {
+            return new Constant(scaleY * value(f));
+        }
+        // При scaleX = 0 область определения (-∞, +∞), а значение равно scaleY * f(0)
+        if (scaleX == 0 && isImmutable(f)) {
+            return new Constant(scaleY * f.getFunctionValue(0));
+        }
+        if (f.getClass() == Scale.class && scaleX != 0) {
+            Scale inner = (Scale) f;
+            if (inner.getScaleX() != 0) {
+                return scale(inner.getFunction(), inner.getScaleX() * scaleX, inner.getScaleY() * scaleY);
+            }
+        }
+        return new Scale(f, scaleX, scaleY);
+    }
+
+    private Function power(Function f, double power) {
+        if (power == 1) {
+            return f;
+        }
+        if (isConstant(f)) {
+            double value = value(f);
+            return new Constant(Double.isNaN(value) ? Double.NaN : Math.pow(value, power));
+        }
+        if (isInteger(power)) {
+            // (f^p)^q = f^(p*q) только для целых p и q: например, (f^2)^0.5 = |f|.
+            // При разных знаках степеней переполнение f^p даёт 0 или ∞ там,
+            // где f^(p*q) конечно, поэтому объединяются только положительные степени
+            if (f.getClass() == Power.class && isPositiveInteger(((Power) f).getPower()) && power > 0) {
+                Power inner = (Power) f;
+                return power(inner.getFunction(), inner.getPower() * power);
+            }
+            if (f.getClass() == IntegerPower.class && ((IntegerPower) f).getPower() > 0 && power > 0) {
+                IntegerPower inner = (IntegerPower) f;
+                return power(inner.getFunction(), inner.getPower() * power);
+            }
+            if (Math.abs(power) <= MAX_INTEGER_POWER) {
+                return new IntegerPower(f, (int) power);
+            }
+        }
+        return new Power(f, power);
+    }
+
+    private static boolean sameParameters(Scale a, Scale b) {
+        return Double.compare(a.getScaleX(), b.getScaleX()) == 0 && Double.compare(a.getScaleY(), b.getScaleY()) == 0;
+    }
+
+    private static boolean sameParameters(Shift a, Shift b) {
+        return Double.compare(a.getShiftX(), b.getShiftX()) == 0 && Double.compare(a.getShiftY(), b.getShiftY()) == 0;
+    }
+
+    private static boolean isInteger(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value);
+    }
+
+    private static boolean isPositiveInteger(double value) {
+        return value > 0 && isInteger(value);
+    }
+
+    private static boolean isConstant(Function f) {
+        return f.getClass() == Constant.class;
+    }
+
+    private static double value(Function f) {
+        return ((Constant) f).getValue();
+    }
+
+    /**
+     * Проверяет, что значения функции не могут измениться со временем:
+     * дерево состоит только из базовых и мета-функций
+     */
+    static boolean isImmutable(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class
+                || type == Log.class || type == Constant.class) {
+            return true;
+        }
+        if (type == Sum.class) {
+            return isImmutable(((Sum) f).getFirstFunction()) && isImmutable(((Sum) f).getSecondFunction());
+        }
+        if (type == Mult.class) {
+            return isImmutable(((Mult) f).getFirstFunction()) && isImmutable(((Mult) f).getSecondFunction());
+        }
+        if (type == Composition.class) {
+            return isImmutable(((Composition) f).getInnerFunction())
+                    && isImmutable(((Composition) f).getOuterFunction());
+        }
+        if (type == Power.class) {
+            return isImmutable(((Power) f).getFunction());
+        }
+        if (type == IntegerPower.class) {
+            return isImmutable(((IntegerPower) f).getFunction());
+        }
+        if (type == Scale.class) {
+            return isImmutable(((Scale) f).getFunction());
+        }
+        if (type == Shift.class) {
+            return isImmutable(((Shift) f).getFunction());
+        }
+        if (type == Shared.class) {
+            return isImmutable(((Shared) f).getFunction());
+        }
+        return false;
+    }
+
+    // Количество различных узлов дерева; общий узел считается один раз
+    private static int countNodes(Function root) {
+        Map<Function, Boolean> visited = new IdentityHashMap<>();
+        countNodes(root, visited);
+        return visited.size();
+    }
+
+    private static void countNodes(Function f, Map<Function, Boolean> visited) {
+        if (visited.put(f, Boolean.TRUE) != null) {
+            return;
+        }
+        Class<?> type = f.getClass();
+        if (type == Sum.class) {
+            countNodes(((Sum) f).getFirstFunction(), visited);
+            countNodes(((Sum) f).getSecondFunction(), visited);
+        } else if (type == Mult.class) {
+            countNodes(((Mult) f).getFirstFunction(), visited);
+            countNodes(((Mult) f).getSecondFunction(), visited);
+        } else if (type == Composition.class) {
+            countNodes(((Composition) f).getInnerFunction(), visited);
+            countNodes(((Composition) f).getOuterFunction(), visited);
+        } else if (type == Power.class) {
+            countNodes(((Power) f).getFunction(), visited);
+        } else if (type == IntegerPower.class) {
+            countNodes(((IntegerPower) f).getFunction(), visited);
+        } else if (type == Scale.class) {
+            countNodes(((Scale) f).getFunction(), visited);
+        } else if (type == Shift.class) {
+            countNodes(((Shift) f).getFunction(), visited);
+        } else if (type == Shared.class) {
+            countNodes(((Shared) f).getFunction(), visited);
+        }
+    }
+
+    /**
+     * Результат упрощения: упрощённая функция и количество узлов до и после
+     */
+    public static final class Result {
+        private final Function function;
+        private final int nodesBefore;
+        private final int nodesAfter;
+
+        private Result(Function function, int nodesBefore, int nodesAfter) {
+            this.function = function;
+            this.nodesBefore = nodesBefore;
+            this.nodesAfter = nodesAfter;
+        }
+
+        /**
+         * Возвращает упрощённую функцию
+         * @return упрощённая функция
+         */
+        public Function getFunction() {
+            return function;
+        }
+
+        /**
+         * Возвращает количество узлов исходного дерева
+         * @return количество узлов до упрощения
+         */
+        public int getNodesBefore() {
+            return nodesBefore;
+        }
+
+        /**
+         * Возвращает количество узлов упрощённого дерева
+         * @return количество узлов после упрощения
+         */
+        public int getNodesAfter() {
+            return nodesAfter;
+        }
+
+        /**
+         * Возвращает количество удалённых узлов
+         * @return разность количества узлов до и после упрощения
+         */
+        public int getRemovedNodes() {
+            return nodesBefore - nodesAfter;
+        }
+
+        @Override
+        public String toString() {
+            return "Узлов до упрощения: " + nodesBefore + ", после: " + nodesAfter
+                    + ", удалено: " + getRemovedNodes();
+        }
+    }
+}
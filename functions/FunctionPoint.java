@@ -60,6 +60,14 @@ public class FunctionPoint implements Serializable, Cloneable {
     
     @Override
     public int hashCode() {
+        return pointHashCode(x, y);
+    }
+    
+    /**
+     * Хэш-код точки с заданными координатами без создания объекта FunctionPoint.
+     * Используется реализациями, хранящими координаты в примитивных массивах.
+     */
+    static int pointHashCode(double x, double y) {
         // Преобразуем double в long bits
         long xBits = Double.doubleToLongBits(x);
         long yBits = Double.doubleToLongBits(y);
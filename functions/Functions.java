@@ -114,4 +114,64 @@ public class Functions {
     public static Function quotient(Function f1, Function f2) {
         return mult(f1, inverse(f2));
     }
+    
+    /**
+     * Упрощает дерево мета-функций: сворачивает вложенные сдвиги, масштабирования
+     * и целые степени, убирает тождественные узлы и вычисляет постоянные поддеревья.
+     * Количество удалённых узлов сообщает FunctionOptimizer.optimize.
+     * @param f исходная функция
+     * @return упрощённая функция с той же областью определения
+     */
+    public static Function optimize(Function f) {
+        return FunctionOptimizer.optimize(f).getFunction();
+    }
+    
+    /**
+     * Возвращает функцию, запоминающую до capacity последних значений исходной функции.
+     * Экземпляр не потокобезопасен.
+     * @param f исходная функция
+     * @param capacity наибольшее количество запоминаемых значений
+     * @return кэширующая функция со счётчиками попаданий, промахов и вытеснений
+     * @throws IllegalArgumentException если capacity не положительна
+     */
+    public static Memoized memoize(Function f, int capacity) {
+        return new Memoized(f, capacity, false);
+    }
+    
+    /**
+     * Возвращает функцию, запоминающую до capacity последних значений исходной функции
+     * @param f исходная функция
+     * @param capacity наибольшее количество запоминаемых значений
+     * @param threadSafe true, если функция используется из нескольких потоков
+     * @return кэширующая функция со счётчиками попаданий, промахов и вытеснений
+     * @throws IllegalArgumentException если capacity не положительна
+     */
+    public static Memoized memoize(Function f, int capacity, boolean threadSafe) {
+        return new Memoized(f, capacity, threadSafe);
+    }
+    
+    /**
+     * Заменяет одинаковые поддеревья из базовых и мета-функций одним общим узлом.
+     * Общие узлы вычисляются один раз на аргумент, сколько бы узлов на них ни ссылалось.
+     * Чтобы узлы были общими для нескольких графов, используйте один FunctionInterner.
+     * @param f исходная функция
+     * @return функция с общими узлами и теми же значениями
+     */
+    public static Function intern(Function f) {
+        return new FunctionInterner().intern(f);
+    }
+    
+    /**
+     * Компилирует дерево функций в один вычислитель на основе цепочки MethodHandle.
+     * Результат вычисляет те же значения, что и исходная функция, но без
+     * виртуального вызова и повторного запроса границ в каждом узле дерева.
+     * Изменения табулированных функций внутри дерева остаются видимыми.
+     * Каждая компиляция определяет скрытый класс и занимает десятки микросекунд,
+     * поэтому компилировать стоит функции, которые вычисляются многократно.
+     * @param f исходная функция
+     * @return скомпилированная функция
+     */
+    public static Function compile(Function f) {
+        return FunctionCompiler.compile(f);
+    }
 }
\ No newline at end of file
@@ -5,14 +5,23 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class LinkedListTabulatedFunction implements TabulatedFunction, Externalizable, Cloneable {
     private static final long serialVersionUID = 1L;
     private static final double EPSILON = 1e-10;
+    // Максимальное число уровней индекса; с вероятностью уровня 1/4 хватает на 4^16 точек
+    private static final int MAX_LEVEL = 16;
+    // Расстояние по индексу, на которое выгоднее пройти от кэшированного узла, чем спускаться по индексу
+    private static final int SEQUENTIAL_DISTANCE = 8;
     
     private transient FunctionNode head;
-    private transient FunctionNode lastAccessedNode;
-    private transient int lastAccessedIndex;
+    // Последний узел, полученный по индексу, вместе с его индексом. Объект кэша
+    // неизменяемый, поэтому читатели, одновременно обновляющие кэш, не могут
+    // оставить в нём узел от одного обращения и индекс от другого
+    private transient AccessCursor lastAccess;
+    // Количество используемых уровней индекса
+    private transient int indexLevels;
     private int pointsCount;
     
     // Конструкторы
@@ -42,6 +51,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             FunctionNode newNode = new FunctionNode(new FunctionPoint(point));
             insertNodeAtTail(newNode);
         }
+        rebuildIndex();
     }
 
     public LinkedListTabulatedFunction(double leftX, double rightX, int pointsCount) {
@@ -62,6 +72,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             // Вставляем в конец
             insertNodeAtTail(newNode);
         }
+        rebuildIndex();
     }
     
     public LinkedListTabulatedFunction(double leftX, double rightX, double[] values) {
@@ -82,6 +93,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             // Вставляем в конец
             insertNodeAtTail(newNode);
         }
+        rebuildIndex();
     }
     
     // Инициализация головы списка (без данных)
@@ -89,61 +101,131 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         head = new FunctionNode(null); // Голова без данных
         head.setPrev(head);
         head.setNext(head);
+        head.setLevels(MAX_LEVEL);
+        indexLevels = 0;
         pointsCount = 0;
-        lastAccessedNode = head;
-        lastAccessedIndex = -1;
+        lastAccess = new AccessCursor(head, -1);
     }
     
     // Приватные методы для работы со списком
     
+    /*
+     * Над двусвязным списком поддерживается индексируемый список с пропусками:
+     * у каждого узла есть 0..MAX_LEVEL дополнительных уровней, на уровне k
+     * узел ссылается на следующий узел не ниже этого уровня и хранит ширину
+     * ссылки - сколько узлов основного списка она перепрыгивает. Это даёт
+     * поиск по индексу и по X за O(log n) при вставке и удалении за O(log n).
+     */
+    
+    // Случайная высота узла: уровень k достигается с вероятностью 4^(-k)
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(bits) / 2, MAX_LEVEL);
+    }
+    
+    /**
+     * Перестраивает индекс по готовому основному списку за O(n).
+     * Высоты узлов выбираются детерминированно: узел с номером i (с единицы)
+     * получает столько уровней, сколько раз i делится на 4.
+     */
+    private void rebuildIndex() {
+        FunctionNode[] lastAtLevel = new FunctionNode[MAX_LEVEL];
+        int[] lastPosition = new int[MAX_LEVEL];
+        for (int k = 0; k < MAX_LEVEL; k++) {
+            lastAtLevel[k] = head;
+            lastPosition[k] = -1;
+            head.getLinks()[k] = null;
+        }
+        indexLevels = 0;
+        
+        FunctionNode currentNode = head.getNext();
+        for (int i = 0; i < pointsCount; i++) {
+            int level = Math.min(Integer.numberOfTrailingZeros(i + 1) / 2, MAX_LEVEL);
+            currentNode.setLevels(level);
+            for (int k = 0; k < level; k++) {
+                lastAtLevel[k].getLinks()[k] = currentNode;
+                lastAtLevel[k].getWidths()[k] = i - lastPosition[k];
+                lastAtLevel[k] = currentNode;
+                lastPosition[k] = i;
+            }
+            indexLevels = Math.max(indexLevels, level);
+            currentNode = currentNode.getNext();
+        }
+    }
+    
+    /**
+     * Находит последний узел с X не больше x спуском по уровням индекса за O(log n)
+     * и возвращает его вместе с индексом. Если x левее всех точек, возвращает голову
+     * списка с индексом -1. Поиск по X не изменяет состояние функции.
+     */
+    private AccessCursor findFloorNode(double x) {
+        FunctionNode node = head;
+        int index = -1;
+        
+        for (int k = indexLevels - 1; k >= 0; k--) {
+            FunctionNode next;
+            while ((next = node.getLinks()[k]) != null && next.getPoint().getX() <= x) {
+                index += node.getWidths()[k];
+                node = next;
+            }
+        }
+        while (node.getNext() != head && node.getNext().getPoint().getX() <= x) {
+            node = node.getNext();
+            index++;
+        }
+        
+        return new AccessCursor(node, index);
+    }
+    
+    /**
+     * Находит узел, с которого начинается отрезок, содержащий x
+     * (требуется не менее двух точек)
+     */
+    private FunctionNode findSegmentNode(double x) {
+        FunctionNode node = findFloorNode(x).node;
+        
+        // x левее первой точки или отрезок начинался бы с последней точки
+        if (node == head) {
+            node = head.getNext();
+        } else if (node.getNext() == head) {
+            node = node.getPrev();
+        }
+        return node;
+    }
+    
     // 3. Метод получения узла по индексу с оптимизацией
     private FunctionNode getNodeByIndex(int index) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
         
-        // Оптимизация: выбор оптимального пути доступа
         FunctionNode currentNode;
         int currentIndex;
+        AccessCursor cached = lastAccess;
         
-        if (lastAccessedNode != head && lastAccessedIndex != -1) {
-            int distanceFromLast = Math.abs(index - lastAccessedIndex);
-            int distanceFromStart = index;
-            int distanceFromEnd = pointsCount - 1 - index;
-            
-            if (distanceFromLast <= distanceFromStart && distanceFromLast <= distanceFromEnd) {
-                currentNode = lastAccessedNode;
-                currentIndex = lastAccessedIndex;
-                
-                if (index > lastAccessedIndex) {
-                    while (currentIndex < index) {
-                        currentNode = currentNode.getNext();
-                        currentIndex++;
-                    }
-                } else {
-                    while (currentIndex > index) {
-                        currentNode = currentNode.getPrev();
-                        currentIndex--;
-                    }
-                }
-            } else if (distanceFromStart <= distanceFromEnd) {
-                currentNode = head.getNext();
-                currentIndex = 0;
-                while (currentIndex < index) {
-                    currentNode = currentNode.getNext();
-                    currentIndex++;
-                }
-            } else {
-                currentNode = head.getPrev();
-                currentIndex = pointsCount - 1;
-                while (currentIndex > index) {
-                    currentNode = currentNode.getPrev();
-                    currentIndex--;
-                }
+        if (cached.index != -1 && Math.abs(index - cached.index) <= SEQUENTIAL_DISTANCE) {
+            // Последовательный обход: идём от последнего использованного узла
+            currentNode = cached.node;
+            currentIndex = cached.index;
+            while (currentIndex < index) {
+                currentNode = currentNode.getNext();
+                currentIndex++;
+            }
+            while (currentIndex > index) {
+                currentNode = currentNode.getPrev();
+                currentIndex--;
             }
         } else {
-            currentNode = head.getNext();
-            currentIndex = 0;
+            // Произвольный доступ: спуск по уровням индекса
+            currentNode = head;
+            currentIndex = -1;
+            for (int k = indexLevels - 1; k >= 0; k--) {
+                while (currentNode.getLinks()[k] != null
+                        && currentIndex + currentNode.getWidths()[k] <= index) {
+                    currentIndex += currentNode.getWidths()[k];
+                    currentNode = currentNode.getLinks()[k];
+                }
+            }
             while (currentIndex < index) {
                 currentNode = currentNode.getNext();
                 currentIndex++;
@@ -151,37 +233,22 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         }
         
         // Кэшируем последний доступ
-        lastAccessedNode = currentNode;
-        lastAccessedIndex = index;
+        lastAccess = new AccessCursor(currentNode, index);
         
         return currentNode;
     }
     
-    // 4. Метод добавления узла в конец
-    private FunctionNode addNodeToTail() {
-        FunctionNode newNode = new FunctionNode(new FunctionPoint(0, 0));
-        insertNodeAtTail(newNode);
-        return newNode;
-    }
-    
-    // Вспомогательный метод для вставки узла в конец
+    // Вспомогательный метод для вставки узла в конец основного списка без обновления индекса;
+    // после серии таких вставок индекс перестраивается методом rebuildIndex
     private void insertNodeAtTail(FunctionNode newNode) {
-        if (pointsCount == 0) {
-            newNode.setPrev(head);
-            newNode.setNext(head);
-            head.setNext(newNode);
-            head.setPrev(newNode);
-        } else {
-            FunctionNode lastNode = head.getPrev();
-            newNode.setPrev(lastNode);
-            newNode.setNext(head);
-            lastNode.setNext(newNode);
-            head.setPrev(newNode);
-        }
+        FunctionNode lastNode = head.getPrev();
+        newNode.setPrev(lastNode);
+        newNode.setNext(head);
+        lastNode.setNext(newNode);
+        head.setPrev(newNode);
         
         pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = pointsCount - 1;
+        lastAccess = new AccessCursor(newNode, pointsCount - 1);
     }
     
     // 5. Метод добавления узла по индексу
@@ -190,23 +257,48 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             throw new FunctionPointIndexOutOfBoundsException(index);
         }
         
-        if (index == pointsCount) {
-            return addNodeToTail();
+        FunctionNode newNode = new FunctionNode(new FunctionPoint(0, 0));
+        int level = randomLevel();
+        newNode.setLevels(level);
+        indexLevels = Math.max(indexLevels, level);
+        
+        // На каждом уровне находим последний узел левее позиции вставки
+        FunctionNode node = head;
+        int position = -1;
+        for (int k = indexLevels - 1; k >= 0; k--) {
+            FunctionNode next;
+            while ((next = node.getLinks()[k]) != null && position + node.getWidths()[k] < index) {
+                position += node.getWidths()[k];
+                node = next;
+            }
+            
+            next = node.getLinks()[k];
+            if (k < level) {
+                // Новый узел встаёт на этом уровне между node и next
+                newNode.getLinks()[k] = next;
+                newNode.getWidths()[k] = next != null ? position + node.getWidths()[k] + 1 - index : 0;
+                node.getLinks()[k] = newNode;
+                node.getWidths()[k] = index - position;
+            } else if (next != null) {
+                // Ссылка перепрыгивает через новый узел
+                node.getWidths()[k]++;
+            }
         }
         
-        FunctionNode currentNode = getNodeByIndex(index);
-        FunctionNode newNode = new FunctionNode(new FunctionPoint(0, 0));
-        FunctionNode prevNode = currentNode.getPrev();
+        while (position < index - 1) {
+            node = node.getNext();
+            position++;
+        }
         
-        // Вставляем новый узел перед currentNode
-        newNode.setPrev(prevNode);
-        newNode.setNext(currentNode);
-        prevNode.setNext(newNode);
-        currentNode.setPrev(newNode);
+        // Вставляем новый узел после node
+        FunctionNode nextNode = node.getNext();
+        newNode.setPrev(node);
+        newNode.setNext(nextNode);
+        node.setNext(newNode);
+        nextNode.setPrev(newNode);
         
         pointsCount++;
-        lastAccessedNode = newNode;
-        lastAccessedIndex = index;
+        lastAccess = new AccessCursor(newNode, index);
         
         return newNode;
     }
@@ -220,22 +312,50 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             throw new IllegalStateException("Нельзя удалить точку - функция должна содержать минимум 3 точки");
         }
         
-        FunctionNode nodeToDelete = getNodeByIndex(index);
-        FunctionNode prevNode = nodeToDelete.getPrev();
+        // На каждом уровне находим последний узел левее удаляемого
+        FunctionNode node = head;
+        int position = -1;
+        for (int k = indexLevels - 1; k >= 0; k--) {
+            FunctionNode next;
+            while ((next = node.getLinks()[k]) != null && position + node.getWidths()[k] < index) {
+                position += node.getWidths()[k];
+                node = next;
+            }
+            
+            next = node.getLinks()[k];
+            if (next != null && position + node.getWidths()[k] == index) {
+                // Ссылка ведёт на удаляемый узел - перекидываем её дальше
+                FunctionNode after = next.getLinks()[k];
+                node.getWidths()[k] = after != null ? node.getWidths()[k] + next.getWidths()[k] - 1 : 0;
+                node.getLinks()[k] = after;
+            } else if (next != null) {
+                node.getWidths()[k]--;
+            }
+        }
+        while (indexLevels > 0 && head.getLinks()[indexLevels - 1] == null) {
+            indexLevels--;
+        }
+        
+        while (position < index - 1) {
+            node = node.getNext();
+            position++;
+        }
+        
+        FunctionNode nodeToDelete = node.getNext();
         FunctionNode nextNode = nodeToDelete.getNext();
         
         // Перелинковываем соседние узлы
-        prevNode.setNext(nextNode);
-        nextNode.setPrev(prevNode);
+        node.setNext(nextNode);
+        nextNode.setPrev(node);
         
         pointsCount--;
         
         // Обновляем кэш
-        if (lastAccessedNode == nodeToDelete) {
-            lastAccessedNode = head;
-            lastAccessedIndex = -1;
-        } else if (lastAccessedIndex > index) {
-            lastAccessedIndex--;
+        AccessCursor cached = lastAccess;
+        if (cached.node == nodeToDelete) {
+            lastAccess = new AccessCursor(head, -1);
+        } else if (cached.index > index) {
+            lastAccess = new AccessCursor(cached.node, cached.index - 1);
         }
         
         return nodeToDelete;
@@ -269,46 +389,68 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             return Double.NaN;
         }
         
-        // Оптимизация: начинаем поиск с последнего доступного узла
-        FunctionNode currentNode = (lastAccessedNode != null && lastAccessedNode != head) 
-            ? lastAccessedNode 
-            : head.getNext();
+        // Единственная точка: область определения вырождена в неё
+        if (pointsCount == 1) {
+            return head.getNext().getPoint().getY();
+        }
         
-        for (int i = 0; i < pointsCount; i++) {
-            // Проверяем, не дошли ли до конца списка
-            if (currentNode == head || currentNode.getNext() == head) {
-                currentNode = head.getNext();
+        return interpolate(findSegmentNode(x), x);
+    }
+    
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Для упорядоченных по возрастанию аргументов узел-курсор только
+     * продвигается вперёд, что даёт O(n + m) на передискретизацию.
+     * Если очередной аргумент меньше начала текущего отрезка, отрезок
+     * находится обычным поиском, и обход продолжается от него.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        if (pointsCount < 2) {
+            for (int i = 0; i < xValues.length; i++) {
+                out[i] = getFunctionValue(xValues[i]);
+            }
+            return;
+        }
+        
+        double left = getLeftDomainBorder() - EPSILON;
+        double right = getRightDomainBorder() + EPSILON;
+        FunctionNode cursor = null;
+        
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
                 continue;
             }
             
-            FunctionNode nextNode = currentNode.getNext();
-            
-            double x1 = currentNode.getPoint().getX();
-            double x2 = nextNode.getPoint().getX();
-            
-            if (x >= x1 - EPSILON && x <= x2 + EPSILON) {
-                double y1 = currentNode.getPoint().getY();
-                double y2 = nextNode.getPoint().getY();
-                
-                if (x > x1 - EPSILON && x < x1 + EPSILON) {
-                    // Обновляем кэш для оптимизации будущих вызовов
-                    lastAccessedNode = currentNode;
-                    return y1;
+            if (cursor != null && x >= cursor.getPoint().getX()) {
+                while (cursor.getNext().getNext() != head && x > cursor.getNext().getPoint().getX()) {
+                    cursor = cursor.getNext();
                 }
-                if (x > x2 - EPSILON && x < x2 + EPSILON) {
-                    lastAccessedNode = nextNode;
-                    return y2;
-                }
-                
-                // Обновляем кэш для оптимизации будущих вызовов
-                lastAccessedNode = currentNode;
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+            } else {
+                cursor = findSegmentNode(x);
             }
-            
-            currentNode = nextNode;
+            out[i] = interpolate(cursor, x);
+        }
+    }
+    
+    // Линейная интерполяция на отрезке, начинающемся с узла node
+    private double interpolate(FunctionNode node, double x) {
+        FunctionPoint p1 = node.getPoint();
+        FunctionPoint p2 = node.getNext().getPoint();
+        double x1 = p1.getX();
+        double x2 = p2.getX();
+        
+        // Проверка на точное совпадение с граничными точками
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return p1.getY();
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return p2.getY();
         }
         
-        return Double.NaN;
+        return p1.getY() + (p2.getY() - p1.getY()) * (x - x1) / (x2 - x1);
     }
     
     @Override
@@ -399,39 +541,90 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
     
     @Override
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
-        // Если список пустой (хотя не должно быть по условию)
-        if (pointsCount == 0) {
-            FunctionNode newNode = new FunctionNode(new FunctionPoint(point));
-            insertNodeAtTail(newNode);
-            return;
-        }
+        double newX = point.getX();
         
-        FunctionNode currentNode = head.getNext();
-        int insertIndex = pointsCount; // По умолчанию в конец
-        
-        for (int i = 0; i < pointsCount; i++) {
-            double currentX = currentNode.getPoint().getX();
-            
-            // Проверка на дубликат
-            if (Math.abs(point.getX() - currentX) < EPSILON) {
-                throw new InappropriateFunctionPointException(
-                    "Точка с X=" + point.getX() + " уже существует");
-            }
-            
-            // Находим позицию для вставки
-            if (point.getX() < currentX - EPSILON) {
-                insertIndex = i;
-                break;
-            }
-            
-            currentNode = currentNode.getNext();
+        // Новая точка встаёт сразу после последнего узла с X не больше newX
+        AccessCursor floor = findFloorNode(newX);
+        if (isDuplicateX(floor.node, newX)) {
+            throw new InappropriateFunctionPointException(
+                "Точка с X=" + newX + " уже существует");
         }
         
         // Вставляем новую точку
-        FunctionNode newNode = addNodeByIndex(insertIndex);
+        FunctionNode newNode = addNodeByIndex(floor.index + 1);
         newNode.setPoint(new FunctionPoint(point));
     }
     
+    /**
+     * Проверяет на дубликат соседей позиции вставки x: узел floorNode
+     * (последний с X не больше x, или голова) и следующий за ним
+     */
+    private boolean isDuplicateX(FunctionNode floorNode, double x) {
+        FunctionNode nextNode = floorNode.getNext();
+        return (floorNode != head && Math.abs(x - floorNode.getPoint().getX()) < EPSILON)
+                || (nextNode != head && Math.abs(x - nextNode.getPoint().getX()) < EPSILON);
+    }
+
+    /**
+     * Добавляет набор точек. Небольшой набор проверяется на дубликаты
+     * и вставляется по одной точке за O(log n), крупный - одним проходом
+     * по основному списку с последующей перестройкой индекса за O(n + k).
+     * При дубликате функция не изменяется.
+     */
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        double[] addXs = xValues.clone();
+        double[] addYs = yValues.clone();
+        TabulatedFunctions.sortPointBatch(addXs, addYs);
+
+        int count = addXs.length;
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(pointsCount)) < pointsCount) {
+            for (int i = 0; i < count; i++) {
+                if (isDuplicateX(findFloorNode(addXs[i]).node, addXs[i])) {
+                    throw new InappropriateFunctionPointException("Точка с X=" + addXs[i] + " уже существует");
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                addPoint(new FunctionPoint(addXs[i], addYs[i]));
+            }
+            return;
+        }
+
+        // Проход по списку: для каждой добавляемой точки запоминается последний
+        // узел с X меньше неё, дубликаты проверяются до изменения списка
+        FunctionNode[] floorNodes = new FunctionNode[count];
+        FunctionNode currentNode = head;
+        for (int i = 0; i < count; i++) {
+            FunctionNode nextNode = currentNode.getNext();
+            while (nextNode != head && nextNode.getPoint().getX() < addXs[i]) {
+                currentNode = nextNode;
+                nextNode = currentNode.getNext();
+            }
+            if (isDuplicateX(currentNode, addXs[i])) {
+                throw new InappropriateFunctionPointException("Точка с X=" + addXs[i] + " уже существует");
+            }
+            floorNodes[i] = currentNode;
+        }
+
+        // Слияние: точки с общим узлом слева встают одна за другой
+        FunctionNode previousNew = null;
+        for (int i = 0; i < count; i++) {
+            currentNode = i > 0 && floorNodes[i] == floorNodes[i - 1] ? previousNew : floorNodes[i];
+            FunctionNode nextNode = currentNode.getNext();
+
+            FunctionNode newNode = new FunctionNode(new FunctionPoint(addXs[i], addYs[i]));
+            newNode.setPrev(currentNode);
+            newNode.setNext(nextNode);
+            nextNode.setPrev(newNode);
+            currentNode.setNext(newNode);
+            previousNew = newNode;
+        }
+
+        pointsCount += count;
+        lastAccess = new AccessCursor(head, -1);
+        rebuildIndex();
+    }
+
     @Override
     public void deletePoint(int index) {
         deleteNodeByIndex(index);
@@ -525,6 +718,9 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             cloned.head = new FunctionNode(null);
             cloned.head.setPrev(cloned.head);
             cloned.head.setNext(cloned.head);
+            cloned.head.setLevels(MAX_LEVEL);
+            cloned.lastAccess = new AccessCursor(cloned.head, -1);
+            AccessCursor cached = this.lastAccess;
             
             if (pointsCount > 0) {
                 FunctionNode currentOriginal = this.head.getNext();
@@ -550,9 +746,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
                     }
                     
                     // Обновляем кэш, если это был кэшированный узел
-                    if (currentOriginal == this.lastAccessedNode) {
-                        cloned.lastAccessedNode = newNode;
-                        cloned.lastAccessedIndex = this.lastAccessedIndex;
+                    if (currentOriginal == cached.node) {
+                        cloned.lastAccess = new AccessCursor(newNode, cached.index);
                     }
                     
                     prevCloned = newNode;
@@ -568,10 +763,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
                 cloned.pointsCount = this.pointsCount;
             } else {
                 cloned.pointsCount = 0;
-                cloned.lastAccessedNode = cloned.head;
-                cloned.lastAccessedIndex = -1;
             }
             
+            // Индекс строится заново по скопированному списку
+            cloned.rebuildIndex();
             return cloned;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError("Клонирование не поддерживается", e);
@@ -608,6 +803,18 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
             FunctionNode newNode = new FunctionNode(new FunctionPoint(x, y));
             insertNodeAtTail(newNode);
         }
+        rebuildIndex();
+    }
+    
+    // Узел списка вместе с его индексом; индекс -1 соответствует голове
+    private static final class AccessCursor {
+        private final FunctionNode node;
+        private final int index;
+        
+        AccessCursor(FunctionNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
     }
     
     // 1. Класс элементов списка (внутренний, приватный)
@@ -617,6 +824,10 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         private FunctionPoint point;
         private FunctionNode prev;
         private FunctionNode next;
+        // Верхние уровни индекса: links[k] - следующий узел уровня k + 1 (null в конце),
+        // widths[k] - на сколько узлов основного списка эта ссылка продвигает
+        private FunctionNode[] links;
+        private int[] widths;
         
         // Конструктор для создания узла с точкой
         public FunctionNode(FunctionPoint point) {
@@ -649,5 +860,19 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Externali
         public void setNext(FunctionNode next) { 
             this.next = next; 
         }
+        
+        public FunctionNode[] getLinks() {
+            return links;
+        }
+        
+        public int[] getWidths() {
+            return widths;
+        }
+        
+        // Задаёт количество уровней индекса узла, сбрасывая его ссылки
+        public void setLevels(int levels) {
+            links = levels > 0 ? new FunctionNode[levels] : null;
+            widths = levels > 0 ? new int[levels] : null;
+        }
     }
 }
\ No newline at end of file
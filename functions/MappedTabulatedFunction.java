@@ -0,0 +1,365 @@
+package functions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Табулированная функция только для чтения, отображённая в память из файла
+ * байтового формата TabulatedFunctions.saveToFile / outputTabulatedFunction
+ * (int количество точек, затем пары double x, y).
+ *
+ * Открытие не читает файл целиком: страницы подгружаются операционной
+ * системой по мере обращения и разделяются между процессами, читающими
+ * тот же файл. Упорядоченность точек при открытии не проверяется -
+ * файл должен быть записан из корректной табулированной функции.
+ * Методы изменения точек выбрасывают UnsupportedOperationException.
+ */
+public class MappedTabulatedFunction implements TabulatedFunction, AutoCloseable, Cloneable {
+
+    private static final double EPSILON = 1e-10;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int POINT_BYTES = 2 * Double.BYTES;
+
+    // Файл отображается участками по 1 ГБ; соседние участки перекрываются на одну точку,
+    // поэтому любое число double целиком лежит в участке, где оно начинается
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+
+    private final String filename;
+    private final int pointsCount;
+    private MappedByteBuffer[] regions;
+    // Предполагаемый шаг равномерной сетки или NaN
+    private final double uniformStep;
+
+    /**
+     * Отображает в память файл с табулированной функцией
+     * @param filename имя файла в байтовом формате
+     * @throws IOException если файл не удалось открыть или его размер не соответствует формату
+     */
+    public MappedTabulatedFunction(String filename) throws IOException {
+        this.filename = filename;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Файл " + filename + " слишком короткий для табулированной функции");
+            }
+
+            int count = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).getInt(0);
+            if (count < 2) {
+                throw new IOException("Некорректное количество точек в файле " + filename + ": " + count);
+            }
+            if (size != HEADER_BYTES + (long) count * POINT_BYTES) {
+                throw new IOException("Размер файла " + filename + " (" + size + " байт) не соответствует "
+                        + "количеству точек " + count);
+            }
+            this.pointsCount = count;
+
+            int regionCount = (int) (((size - 1) >>> REGION_SHIFT) + 1);
+            regions = new MappedByteBuffer[regionCount];
+            for (int k = 0; k < regionCount; k++) {
+                long start = (long) k << REGION_SHIFT;
+                long length = Math.min(size - start, REGION_MASK + 1 + POINT_BYTES);
+                regions[k] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+
+        this.uniformStep = guessUniformStep();
+    }
+
+    // Чтение double по смещению в файле
+    private double readDouble(long position) {
+        MappedByteBuffer[] mapped = regions;
+        if (mapped == null) {
+            throw new IllegalStateException("Табулированная функция уже закрыта");
+        }
+        return mapped[(int) (position >>> REGION_SHIFT)].getDouble((int) (position & REGION_MASK));
+    }
+
+    private double x(int index) {
+        return readDouble(HEADER_BYTES + (long) index * POINT_BYTES);
+    }
+
+    private double y(int index) {
+        return readDouble(HEADER_BYTES + (long) index * POINT_BYTES + Double.BYTES);
+    }
+
+    /**
+     * Оценивает шаг сетки по нескольким точкам, не читая файл целиком.
+     * Ошибочная оценка безопасна: findSegment проверяет найденный отрезок
+     * и при промахе переходит к бинарному поиску.
+     */
+    private double guessUniformStep() {
+        double leftX = x(0);
+        double step = (x(pointsCount - 1) - leftX) / (pointsCount - 1);
+        double tolerance = step * 1e-6;
+
+        for (int k = 1; k < 4; k++) {
+            int i = (int) ((long) (pointsCount - 1) * k / 4);
+            if (Math.abs(x(i) - (leftX + i * step)) > tolerance) {
+                return Double.NaN;
+            }
+        }
+        return step;
+    }
+
+    /**
+     * Возвращает имя отображённого файла
+     * @return имя файла
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Записывает функцию в канал в байтовом формате копированием файла
+     * средствами операционной системы (FileChannel.transferTo), без чтения
+     * данных в память процесса.
+     * @param target канал, в который записывается функция
+     * @throws IOException если файл не удалось прочитать или записать в канал
+     * @throws IllegalStateException если функция уже закрыта
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        if (regions == null) {
+            throw new IllegalStateException("Табулированная функция уже закрыта");
+        }
+        long size = HEADER_BYTES + (long) pointsCount * POINT_BYTES;
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, size - position, target);
+                if (transferred <= 0) {
+                    throw new EOFException("Файл " + filename + " был укорочен после отображения");
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Отпускает отображение файла. Страницы освобождаются, когда
+     * буферы будут собраны сборщиком мусора. Копии, полученные через clone(),
+     * остаются работоспособными.
+     */
+    @Override
+    public void close() {
+        regions = null;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < x(0) - EPSILON || x > x(pointsCount - 1) + EPSILON) {
+            return Double.NaN;
+        }
+        return interpolate(findSegment(x), x);
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Для упорядоченных по возрастанию аргументов курсор отрезка только
+     * продвигается вперёд; при нарушении порядка отрезок ищется заново.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        double left = x(0) - EPSILON;
+        double right = x(pointsCount - 1) + EPSILON;
+        int last = pointsCount - 2;
+        int segment = -1;
+
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
+
+            if (segment >= 0 && x >= x(segment)) {
+                while (segment < last && x > x(segment + 1)) {
+                    segment++;
+                }
+            } else {
+                segment = findSegment(x);
+            }
+            out[i] = interpolate(segment, x);
+        }
+    }
+
+    /**
+     * Находит индекс i отрезка [x_i, x_{i+1}], содержащего x.
+     * На равномерной сетке индекс вычисляется сразу, иначе - бинарным поиском.
+     */
+    private int findSegment(double x) {
+        int last = pointsCount - 2;
+
+        if (!Double.isNaN(uniformStep)) {
+            int i = (int) ((x - x(0)) / uniformStep);
+            if (i < 0) {
+                i = 0;
+            } else if (i > last) {
+                i = last;
+            }
+            if (x >= x(i) && x <= x(i + 1)) {
+                return i;
+            }
+        }
+
+        // Ищем последний индекс из [0, last], для которого x_i <= x
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Линейная интерполяция на отрезке [x_i, x_{i+1}]
+    private double interpolate(int i, double x) {
+        double x1 = x(i);
+        double x2 = x(i + 1);
+
+        // Проверка на точное совпадение с граничными точками
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return y(i);
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return y(i + 1);
+        }
+
+        double y1 = y(i);
+        return y1 + (y(i + 1) - y1) * (x - x1) / (x2 - x1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Функция, отображённая из файла, доступна только для чтения");
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) {
+        throw readOnly();
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) {
+        throw readOnly();
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) {
+        throw readOnly();
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        throw readOnly();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('(').append(x(i)).append("; ").append(y(i)).append(')');
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction other = (TabulatedFunction) o;
+        if (pointsCount != other.getPointsCount()) return false;
+
+        for (int i = 0; i < pointsCount; i++) {
+            if (Double.compare(x(i), other.getPointX(i)) != 0
+                    || Double.compare(y(i), other.getPointY(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            result ^= FunctionPoint.pointHashCode(x(i), y(i));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает ещё одно представление того же отображения.
+     * Данные доступны только для чтения, поэтому копировать их не требуется.
+     */
+    @Override
+    public MappedTabulatedFunction clone() {
+        try {
+            return (MappedTabulatedFunction) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Клонирование не поддерживается", e);
+        }
+    }
+}
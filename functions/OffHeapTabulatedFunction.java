@@ -0,0 +1,560 @@
+package functions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Табулированная функция, координаты точек которой хранятся вне кучи Java
+ * в прямых (direct) буферах. Такие данные не перемещаются и не сканируются
+ * сборщиком мусора, что важно для таблиц из сотен миллионов точек.
+ * Один буфер вмещает не более Integer.MAX_VALUE / 8 точек.
+ *
+ * Объект нужно закрыть методом close() после использования: закрытая функция
+ * сразу освобождает память буферов, и любое обращение к ней приводит
+ * к IllegalStateException. Память старых буферов при перевыделении
+ * освобождается так же сразу, не дожидаясь сборщика мусора.
+ */
+public class OffHeapTabulatedFunction implements TabulatedFunction, AutoCloseable, Cloneable {
+
+    private static final double EPSILON = 1e-10;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / Double.BYTES;
+
+    // Unsafe.invokeCleaner из модуля jdk.unsupported; null, если он недоступен
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    // Прямые буферы, которыми владеет функция, и их представления в виде double
+    private ByteBuffer xMemory;
+    private ByteBuffer yMemory;
+    private DoubleBuffer xs;
+    private DoubleBuffer ys;
+    private int pointsCount;
+    // Шаг сетки, если точки расположены равномерно, иначе NaN
+    private double uniformStep;
+
+    public OffHeapTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        // Проверка упорядоченности точек по X
+        for (int i = 0; i < points.length - 1; i++) {
+            if (points[i].getX() >= points[i + 1].getX() - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+
+        allocate(points.length);
+        this.pointsCount = points.length;
+        for (int i = 0; i < pointsCount; i++) {
+            xs.put(i, points[i].getX());
+            ys.put(i, points[i].getY());
+        }
+        updateUniformStep();
+    }
+
+    public OffHeapTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Массивы координат X и Y должны быть одинаковой длины");
+        }
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+
+        // Проверка упорядоченности точек по X
+        for (int i = 0; i < xValues.length - 1; i++) {
+            if (xValues[i] >= xValues[i + 1] - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+
+        allocate(xValues.length);
+        this.pointsCount = xValues.length;
+        xs.put(0, xValues);
+        ys.put(0, yValues);
+        updateUniformStep();
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX - EPSILON) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        checkPointsCount(values.length);
+
+        allocate(values.length);
+        this.pointsCount = values.length;
+
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xs.put(i, leftX + i * step);
+        }
+        ys.put(0, values);
+        this.uniformStep = step;
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        return pointsCount;
+    }
+
+    // Выделение буферов заданной ёмкости вне кучи
+    private void allocate(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Количество точек превышает " + MAX_CAPACITY);
+        }
+        xMemory = ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder());
+        yMemory = ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder());
+        xs = xMemory.asDoubleBuffer();
+        ys = yMemory.asDoubleBuffer();
+    }
+
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Освобождает память прямого буфера сразу. Без jdk.unsupported память
+     * возвращается системе, когда буфер будет собран сборщиком мусора
+     */
+    private static void free(ByteBuffer memory) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(memory);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Не удалось освободить буфер", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (xs == null) {
+            throw new IllegalStateException("Табулированная функция уже закрыта");
+        }
+    }
+
+    /**
+     * Закрывает функцию и сразу освобождает память буферов с координатами.
+     * Вызов не должен выполняться одновременно с другими методами функции.
+     * Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (xs == null) {
+            return;
+        }
+        ByteBuffer oldX = xMemory;
+        ByteBuffer oldY = yMemory;
+        xMemory = null;
+        yMemory = null;
+        xs = null;
+        ys = null;
+        pointsCount = 0;
+        free(oldX);
+        free(oldY);
+    }
+
+    /**
+     * Проверяет, закрыта ли функция
+     * @return true, если был вызван close()
+     */
+    public boolean isClosed() {
+        return xs == null;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        ensureOpen();
+        return xs.get(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        ensureOpen();
+        return xs.get(pointsCount - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        ensureOpen();
+        if (x < xs.get(0) - EPSILON || x > xs.get(pointsCount - 1) + EPSILON) {
+            return Double.NaN;
+        }
+        return interpolate(findSegment(x), x);
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Для упорядоченных по возрастанию аргументов курсор отрезка только
+     * продвигается вперёд; при нарушении порядка отрезок ищется заново.
+     */
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        ensureOpen();
+        double left = xs.get(0) - EPSILON;
+        double right = xs.get(pointsCount - 1) + EPSILON;
+        int last = pointsCount - 2;
+        int segment = -1;
+
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            if (x < left || x > right) {
+                out[i] = Double.NaN;
+                continue;
+            }
+
+            if (segment >= 0 && x >= xs.get(segment)) {
+                while (segment < last && x > xs.get(segment + 1)) {
+                    segment++;
+                }
+            } else {
+                segment = findSegment(x);
+            }
+            out[i] = interpolate(segment, x);
+        }
+    }
+
+    /**
+     * Находит индекс i отрезка [x_i, x_{i+1}], содержащего x.
+     * На равномерной сетке индекс вычисляется сразу, иначе - бинарным поиском.
+     */
+    private int findSegment(double x) {
+        int last = pointsCount - 2;
+
+        if (!Double.isNaN(uniformStep)) {
+            int i = (int) ((x - xs.get(0)) / uniformStep);
+            if (i < 0) {
+                i = 0;
+            } else if (i > last) {
+                i = last;
+            }
+            // Из-за округления индекс может отличаться от точного на единицу
+            if (x >= xs.get(i) && x <= xs.get(i + 1)) {
+                return i;
+            }
+            if (i > 0 && x < xs.get(i) && x >= xs.get(i - 1)) {
+                return i - 1;
+            }
+            if (i < last && x > xs.get(i + 1) && x <= xs.get(i + 2)) {
+                return i + 1;
+            }
+        }
+
+        // Ищем последний индекс из [0, last], для которого xs[i] <= x
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (xs.get(mid) <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Линейная интерполяция на отрезке [x_i, x_{i+1}]
+    private double interpolate(int i, double x) {
+        double x1 = xs.get(i);
+        double x2 = xs.get(i + 1);
+        double y1 = ys.get(i);
+        double y2 = ys.get(i + 1);
+
+        // Проверка на точное совпадение с граничными точками
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return y1;
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return y2;
+        }
+
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    // Пересчитывает признак равномерной сетки
+    private void updateUniformStep() {
+        double leftX = xs.get(0);
+        double step = (xs.get(pointsCount - 1) - leftX) / (pointsCount - 1);
+        double tolerance = step * 1e-6;
+
+        for (int i = 1; i < pointsCount - 1; i++) {
+            if (Math.abs(xs.get(i) - (leftX + i * step)) > tolerance) {
+                uniformStep = Double.NaN;
+                return;
+            }
+        }
+        uniformStep = step;
+    }
+
+    private void checkIndex(int index) {
+        ensureOpen();
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xs.get(index), ys.get(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        double newX = point.getX();
+
+        if (index == 0) {
+            if (newX >= xs.get(1) - EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата первой точки должна быть меньше X координаты второй точки");
+            }
+        } else if (index == pointsCount - 1) {
+            if (newX <= xs.get(pointsCount - 2) + EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата последней точки должна быть больше X координаты предыдущей точки");
+            }
+        } else {
+            double prevX = xs.get(index - 1);
+            double nextX = xs.get(index + 1);
+            if (newX <= prevX + EPSILON || newX >= nextX - EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "X координата средней точки должна быть между " + prevX + " и " + nextX);
+            }
+            // Смещение средней точки с её узла сетки делает сетку неравномерной
+            if (!Double.isNaN(uniformStep)
+                    && Math.abs(newX - (xs.get(0) + index * uniformStep)) > uniformStep * 1e-6) {
+                uniformStep = Double.NaN;
+            }
+        }
+
+        xs.put(index, newX);
+        ys.put(index, point.getY());
+        // Сетку целиком пересчитывает только перемещение крайней точки
+        if (index == 0 || index == pointsCount - 1) {
+            updateUniformStep();
+        }
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xs.get(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        setPoint(index, new FunctionPoint(x, ys.get(index)));
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return ys.get(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        ys.put(index, y);
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        ensureOpen();
+        double newX = point.getX();
+
+        // Позиция вставки - первый индекс с xs[i] >= newX
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs.get(mid) < newX) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int insertIndex = low;
+
+        // Проверка на дубликат среди соседних точек
+        if ((insertIndex < pointsCount && Math.abs(xs.get(insertIndex) - newX) < EPSILON)
+                || (insertIndex > 0 && Math.abs(xs.get(insertIndex - 1) - newX) < EPSILON)) {
+            throw new InappropriateFunctionPointException("Точка с X=" + newX + " уже существует");
+        }
+
+        // Увеличиваем буферы при необходимости
+        if (pointsCount == xs.capacity()) {
+            resize((int) Math.min(MAX_CAPACITY, (long) pointsCount + pointsCount / 2 + 1));
+        }
+
+        shiftTail(insertIndex, 1);
+        xs.put(insertIndex, newX);
+        ys.put(insertIndex, point.getY());
+        pointsCount++;
+        updateUniformStep();
+    }
+
+    /**
+     * Добавляет набор точек однопроходным слиянием с конца буферов
+     * с не более чем одним перевыделением памяти.
+     */
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        ensureOpen();
+        double[] addXs = xValues.clone();
+        double[] addYs = yValues.clone();
+        TabulatedFunctions.sortPointBatch(addXs, addYs);
+        TabulatedFunctions.checkPointBatch(this, addXs);
+
+        long total = (long) pointsCount + addXs.length;
+        if (total > MAX_CAPACITY) {
+            throw new IllegalStateException("Количество точек превышает " + MAX_CAPACITY);
+        }
+        if (total > xs.capacity()) {
+            resize((int) Math.min(MAX_CAPACITY, Math.max(total, (long) xs.capacity() + xs.capacity() / 2 + 1)));
+        }
+
+        // Слияние с конца: ещё не перенесённые точки не затираются
+        int a = pointsCount - 1;
+        int b = addXs.length - 1;
+        for (int t = (int) total - 1; b >= 0; t--) {
+            if (a >= 0 && xs.get(a) > addXs[b]) {
+                xs.put(t, xs.get(a));
+                ys.put(t, ys.get(a--));
+            } else {
+                xs.put(t, addXs[b]);
+                ys.put(t, addYs[b--]);
+            }
+        }
+        pointsCount = (int) total;
+        updateUniformStep();
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        checkIndex(index);
+        if (pointsCount < 3) {
+            throw new IllegalStateException("Нельзя удалить точку - функция должна содержать минимум 3 точки");
+        }
+
+        shiftTail(index + 1, -1);
+        pointsCount--;
+
+        // Сжимаем буферы, если они заполнены менее чем на четверть
+        if (pointsCount < xs.capacity() / 4) {
+            resize(pointsCount * 2);
+        }
+        updateUniformStep();
+    }
+
+    // Сдвигает точки с индекса from до конца на shift позиций одним копированием
+    // в каждом буфере; пересечение источника и приёмника put допускает
+    private void shiftTail(int from, int shift) {
+        xs.duplicate().position(from + shift).put(xs.duplicate().position(from).limit(pointsCount));
+        ys.duplicate().position(from + shift).put(ys.duplicate().position(from).limit(pointsCount));
+    }
+
+    // Перевыделение буферов с копированием точек; память старых буферов освобождается сразу
+    private void resize(int capacity) {
+        if (capacity <= pointsCount) {
+            throw new IllegalStateException("Количество точек превышает " + MAX_CAPACITY);
+        }
+        ByteBuffer oldX = xMemory;
+        ByteBuffer oldY = yMemory;
+        DoubleBuffer oldXs = xs;
+        DoubleBuffer oldYs = ys;
+        allocate(capacity);
+        xs.put(oldXs.duplicate().position(0).limit(pointsCount));
+        ys.put(oldYs.duplicate().position(0).limit(pointsCount));
+        free(oldX);
+        free(oldY);
+    }
+
+    @Override
+    public String toString() {
+        ensureOpen();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('(').append(xs.get(i)).append("; ").append(ys.get(i)).append(')');
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TabulatedFunction)) return false;
+        ensureOpen();
+
+        TabulatedFunction other = (TabulatedFunction) o;
+        if (pointsCount != other.getPointsCount()) return false;
+
+        for (int i = 0; i < pointsCount; i++) {
+            if (Double.compare(xs.get(i), other.getPointX(i)) != 0
+                    || Double.compare(ys.get(i), other.getPointY(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        ensureOpen();
+        int result = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            result ^= FunctionPoint.pointHashCode(xs.get(i), ys.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает независимую копию с собственными буферами вне кучи.
+     * Копию также нужно закрыть после использования.
+     */
+    @Override
+    public OffHeapTabulatedFunction clone() {
+        ensureOpen();
+        try {
+            OffHeapTabulatedFunction cloned = (OffHeapTabulatedFunction) super.clone();
+            cloned.allocate(pointsCount);
+            cloned.xs.put(xs.duplicate().position(0).limit(pointsCount));
+            cloned.ys.put(ys.duplicate().position(0).limit(pointsCount));
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Клонирование не поддерживается", e);
+        }
+    }
+}
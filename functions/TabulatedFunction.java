@@ -18,6 +18,36 @@ public interface TabulatedFunction extends Function, Cloneable {
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
     void deletePoint(int index);
     
+    /**
+     * Добавляет набор точек за одну операцию. Набор может быть не упорядочен.
+     * Если хотя бы одна точка совпадает по X с существующей точкой или с другой
+     * точкой набора, выбрасывается исключение и функция не изменяется.
+     */
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        double[] xValues = new double[points.length];
+        double[] yValues = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
+        }
+        addPoints(xValues, yValues);
+    }
+    
+    /**
+     * Добавляет набор точек, заданных массивами координат, за одну операцию.
+     * Реализация по умолчанию проверяет весь набор и затем добавляет точки по одной;
+     * реализации переопределяют её однопроходным слиянием.
+     */
+    default void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        double[] xs = xValues.clone();
+        double[] ys = yValues.clone();
+        TabulatedFunctions.sortPointBatch(xs, ys);
+        TabulatedFunctions.checkPointBatch(this, xs);
+        for (int i = 0; i < xs.length; i++) {
+            addPoint(new FunctionPoint(xs[i], ys[i]));
+        }
+    }
+    
     // Методы Object, которые должны быть переопределены
     String toString();
     boolean equals(Object o);
@@ -1,7 +1,23 @@
 package functions;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Вспомогательный класс со статическими методами для работы с табулированными функциями.
@@ -9,6 +25,30 @@ import java.util.ArrayList;
  */
 public class TabulatedFunctions {
     
+    private static final double EPSILON = 1e-10;
+    
+    // Количество точек начальной сетки адаптивного табулирования
+    private static final int ADAPTIVE_INITIAL_POINTS = 9;
+    
+    // Наименьшая часть сетки, вычисляемая одной задачей при параллельном табулировании
+    private static final int PARALLEL_MIN_CHUNK = 4096;
+    
+    // Количество узлов первого и последнего шага подбора степени ряда Чебышёва
+    private static final int CHEBYSHEV_INITIAL_POINTS = 16;
+    private static final int CHEBYSHEV_MAX_POINTS = 4096;
+    
+    // Байтовый формат читается и пишется блоками по 4096 точек (64 КБ)
+    private static final int BINARY_BLOCK_POINTS = 4096;
+    private static final int BINARY_BUFFER_BYTES = Integer.BYTES + BINARY_BLOCK_POINTS * 2 * Double.BYTES;
+    
+    // Первое int байтового формата равномерной сетки вместо количества точек.
+    // Количество точек не бывает отрицательным, поэтому форматы различимы
+    private static final int UNIFORM_MARKER = -1;
+    private static final int UNIFORM_HEADER_BYTES = Integer.BYTES + 2 * Double.BYTES;
+    
+    // Количество одновременных загрузок в loadAll по умолчанию
+    private static final int LOAD_ALL_CONCURRENCY = 16;
+    
     // Приватный конструктор для предотвращения создания экземпляров класса
     private TabulatedFunctions() {
         throw new AssertionError("Нельзя создавать экземпляры класса TabulatedFunctions");
@@ -20,10 +60,44 @@ public class TabulatedFunctions {
      * Табулирует функцию на заданном отрезке с заданным количеством точек
      */
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount) {
+        checkTabulation(function, leftX, rightX, pointsCount);
+        
+        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        double step = (rightX - leftX) / (pointsCount - 1);
+        
+        for (int i = 0; i < pointsCount; i++) {
+            double x = leftX + i * step;
+            double y = function.getFunctionValue(x);
+            points[i] = new FunctionPoint(x, y);
+        }
+        
+        return new ArrayTabulatedFunction(points);
+    }
+    
+    /**
+     * Табулирует функцию на заданном отрезке с заданным количеством точек
+     * в функцию на равномерной сетке (UniformTabulatedFunction). Точки те же,
+     * что у tabulate, но X не хранятся
+     */
+    public static UniformTabulatedFunction tabulateUniform(Function function, double leftX, double rightX,
+                                                           int pointsCount) {
+        checkTabulation(function, leftX, rightX, pointsCount);
+        
+        UniformTabulatedFunction result = new UniformTabulatedFunction(leftX, rightX, pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            result.setPointY(i, function.getFunctionValue(result.getPointX(i)));
+        }
+        return result;
+    }
+    
+    private static void checkTabulation(Function function, double leftX, double rightX, int pointsCount) {
         if (pointsCount < 2) {
             throw new IllegalArgumentException("Количество точек должно быть не менее 2");
         }
-        
+        checkInterval(function, leftX, rightX);
+    }
+    
+    private static void checkInterval(Function function, double leftX, double rightX) {
         if (leftX >= rightX) {
             throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
         }
@@ -35,17 +109,99 @@ public class TabulatedFunctions {
                 function.getLeftDomainBorder() + ", " + function.getRightDomainBorder() + "]"
             );
         }
+    }
+    
+    /**
+     * Табулирует функцию параллельно в общем пуле ForkJoinPool.
+     * Точки и значения совпадают с tabulate(function, leftX, rightX, pointsCount),
+     * но записываются сразу в массивы без создания FunctionPoint.
+     * Функция вычисляется одновременно из нескольких потоков, поэтому её чтение
+     * должно быть потокобезопасным (как у базовых и мета-функций).
+     * @param function табулируемая функция
+     * @param leftX левая граница табулирования
+     * @param rightX правая граница табулирования
+     * @param pointsCount количество точек
+     * @return табулированная функция на массиве
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX,
+                                                     int pointsCount) {
+        return tabulateParallel(function, leftX, rightX, pointsCount, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Табулирует функцию параллельно в заданном пуле ForkJoinPool.
+     * Результат совпадает с tabulate(function, leftX, rightX, pointsCount).
+     * @param function табулируемая функция
+     * @param leftX левая граница табулирования
+     * @param rightX правая граница табулирования
+     * @param pointsCount количество точек
+     * @param pool пул потоков для вычисления
+     * @return табулированная функция на массиве
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public static TabulatedFunction tabulateParallel(Function function, double leftX, double rightX,
+                                                     int pointsCount, ForkJoinPool pool) {
+        checkTabulation(function, leftX, rightX, pointsCount);
         
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
         double step = (rightX - leftX) / (pointsCount - 1);
+        // Несколько частей на поток сглаживают разную стоимость вычисления по отрезку
+        int threshold = Math.max(PARALLEL_MIN_CHUNK, pointsCount / (pool.getParallelism() * 8));
+        pool.invoke(new TabulationTask(function, leftX, step, xs, ys, 0, pointsCount, threshold));
+        return ArrayTabulatedFunction.adopt(xs, ys);
+    }
+    
+    /**
+     * Часть параллельного табулирования: заполняет индексы [from, to).
+     * X вычисляются той же формулой, что и в последовательном табулировании,
+     * поэтому результат не зависит от разбиения.
+     */
+    private static final class TabulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
         
-        for (int i = 0; i < pointsCount; i++) {
-            double x = leftX + i * step;
-            double y = function.getFunctionValue(x);
-            points[i] = new FunctionPoint(x, y);
+        private final Function function;
+        private final double leftX;
+        private final double step;
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        
+        TabulationTask(Function function, double leftX, double step, double[] xs, double[] ys,
+                       int from, int to, int threshold) {
+            this.function = function;
+            this.leftX = leftX;
+            this.step = step;
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
         }
         
-        return new ArrayTabulatedFunction(points);
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TabulationTask(function, leftX, step, xs, ys, from, middle, threshold),
+                        new TabulationTask(function, leftX, step, xs, ys, middle, to, threshold));
+                return;
+            }
+            double previous = from == 0 ? Double.NEGATIVE_INFINITY : leftX + (from - 1) * step;
+            for (int i = from; i < to; i++) {
+                double x = leftX + i * step;
+                // Та же проверка, что в конструкторе ArrayTabulatedFunction
+                if (previous >= x - EPSILON) {
+                    throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+                }
+                xs[i] = x;
+                ys[i] = function.getFunctionValue(x);
+                previous = x;
+            }
+        }
     }
     
     /**
@@ -64,6 +220,249 @@ public class TabulatedFunctions {
         return tabulate(function, leftX, rightX, pointsCount);
     }
     
+    /**
+     * Табулирует функцию с адаптивным шагом: отрезки делятся пополам там, где
+     * линейная интерполяция отклоняется от функции больше чем на tolerance.
+     * Отклонение оценивается в середине и четвертях отрезка, первым делится
+     * отрезок с наибольшим отклонением, поэтому при ограничении maxPoints точки
+     * достаются самым крутым участкам. Участки на границе значений NaN
+     * делятся до тех пор, пока точки отстоят друг от друга больше чем на 2e-10.
+     * @param function табулируемая функция
+     * @param leftX левая граница табулирования
+     * @param rightX правая граница табулирования
+     * @param tolerance допустимое отклонение интерполяции
+     * @param maxPoints наибольшее количество точек
+     * @return табулированная функция на массиве
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public static TabulatedFunction tabulateAdaptive(Function function, double leftX, double rightX,
+                                                     double tolerance, int maxPoints) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допустимое отклонение должно быть положительным");
+        }
+        checkInterval(function, leftX, rightX);
+        
+        // Начальная равномерная сетка, чтобы не пропустить особенности,
+        // симметричные относительно середины всего отрезка
+        int initialPoints = Math.min(maxPoints, ADAPTIVE_INITIAL_POINTS);
+        double step = (rightX - leftX) / (initialPoints - 1);
+        double[] xs = new double[initialPoints];
+        double[] ys = new double[initialPoints];
+        for (int i = 0; i < initialPoints; i++) {
+            xs[i] = i == initialPoints - 1 ? rightX : leftX + i * step;
+            ys[i] = function.getFunctionValue(xs[i]);
+        }
+        
+        PriorityQueue<AdaptiveSegment> queue = new PriorityQueue<>();
+        ArrayList<AdaptiveSegment> done = new ArrayList<>();
+        int pointsCount = initialPoints;
+        for (int i = 0; i + 1 < initialPoints; i++) {
+            double middleX = xs[i] + (xs[i + 1] - xs[i]) / 2;
+            AdaptiveSegment segment = new AdaptiveSegment(function, xs[i], ys[i],
+                    middleX, function.getFunctionValue(middleX), xs[i + 1], ys[i + 1]);
+            (segment.error > tolerance ? queue : done).add(segment);
+        }
+        
+        while (!queue.isEmpty() && pointsCount < maxPoints) {
+            AdaptiveSegment segment = queue.poll();
+            // Середина становится точкой таблицы, четверти - серединами половин
+            AdaptiveSegment left = new AdaptiveSegment(function, segment.leftX, segment.leftY,
+                    segment.leftQuarterX, segment.leftQuarterY, segment.middleX, segment.middleY);
+            AdaptiveSegment right = new AdaptiveSegment(function, segment.middleX, segment.middleY,
+                    segment.rightQuarterX, segment.rightQuarterY, segment.rightX, segment.rightY);
+            pointsCount++;
+            (left.error > tolerance ? queue : done).add(left);
+            (right.error > tolerance ? queue : done).add(right);
+        }
+        done.addAll(queue);
+        done.sort((a, b) -> Double.compare(a.leftX, b.leftX));
+        
+        double[] resultXs = new double[done.size() + 1];
+        double[] resultYs = new double[done.size() + 1];
+        for (int i = 0; i < done.size(); i++) {
+            resultXs[i] = done.get(i).leftX;
+            resultYs[i] = done.get(i).leftY;
+        }
+        resultXs[done.size()] = rightX;
+        resultYs[done.size()] = ys[initialPoints - 1];
+        return new ArrayTabulatedFunction(resultXs, resultYs);
+    }
+    
+    /**
+     * Отрезок адаптивного табулирования. Отклонение линейной интерполяции
+     * оценивается в середине и в четвертях отрезка: одной середины мало для
+     * функций, отклонение которых нечётно относительно середины (например,
+     * синуса около нуля). При делении четверти становятся серединами половин.
+     */
+    private static final class AdaptiveSegment implements Comparable<AdaptiveSegment> {
+        final double leftX;
+        final double leftY;
+        final double leftQuarterX;
+        final double leftQuarterY;
+        final double middleX;
+        final double middleY;
+        final double rightQuarterX;
+        final double rightQuarterY;
+        final double rightX;
+        final double rightY;
+        final double error;
+        
+        AdaptiveSegment(Function function, double leftX, double leftY, double middleX, double middleY,
+                        double rightX, double rightY) {
+            this.leftX = leftX;
+            this.leftY = leftY;
+            this.middleX = middleX;
+            this.middleY = middleY;
+            this.rightX = rightX;
+            this.rightY = rightY;
+            this.leftQuarterX = leftX + (middleX - leftX) / 2;
+            this.rightQuarterX = middleX + (rightX - middleX) / 2;
+            
+            // Точки таблицы должны отстоять друг от друга больше чем на EPSILON
+            if (middleX - leftX <= 2 * EPSILON || rightX - middleX <= 2 * EPSILON) {
+                this.leftQuarterY = Double.NaN;
+                this.rightQuarterY = Double.NaN;
+                this.error = 0;
+                return;
+            }
+            this.leftQuarterY = function.getFunctionValue(leftQuarterX);
+            this.rightQuarterY = function.getFunctionValue(rightQuarterX);
+            
+            double slope = (rightY - leftY) / (rightX - leftX);
+            double deviation = Math.max(Math.abs(middleY - (leftY + slope * (middleX - leftX))),
+                    Math.max(Math.abs(leftQuarterY - (leftY + slope * (leftQuarterX - leftX))),
+                            Math.abs(rightQuarterY - (leftY + slope * (rightQuarterX - leftX)))));
+            if (!Double.isNaN(deviation)) {
+                this.error = deviation;
+            } else if (Double.isNaN(leftY) && Double.isNaN(leftQuarterY) && Double.isNaN(middleY)
+                    && Double.isNaN(rightQuarterY) && Double.isNaN(rightY)) {
+                // Функция не определена на всём отрезке, уточнять нечего
+                this.error = 0;
+            } else {
+                // Граница участка, где функция не определена, уточняется делением
+                this.error = Double.POSITIVE_INFINITY;
+            }
+        }
+        
+        // Первым в очереди стоит отрезок с наибольшим отклонением
+        @Override
+        public int compareTo(AdaptiveSegment other) {
+            return Double.compare(other.error, error);
+        }
+    }
+    
+    // ========== Приближение рядом Чебышёва ==========
+    
+    /**
+     * Приближает функцию на отрезке рядом Чебышёва заданной степени:
+     * интерполяционным многочленом по degree + 1 узлам Чебышёва.
+     * @param function приближаемая функция
+     * @param leftX левая граница отрезка
+     * @param rightX правая граница отрезка
+     * @param degree степень ряда
+     * @return ряд Чебышёва на [leftX, rightX]
+     * @throws IllegalArgumentException если параметры некорректны или функция
+     *         не определена в одном из узлов
+     */
+    public static ChebyshevFunction chebyshevOfDegree(Function function, double leftX, double rightX, int degree) {
+        if (degree < 0) {
+            throw new IllegalArgumentException("Степень ряда должна быть неотрицательной");
+        }
+        checkInterval(function, leftX, rightX);
+        return new ChebyshevFunction(leftX, rightX, chebyshevCoefficients(function, leftX, rightX, degree + 1));
+    }
+    
+    /**
+     * Приближает функцию на отрезке рядом Чебышёва наименьшей степени,
+     * отклонение которого от функции не больше tolerance.
+     * Количество узлов удваивается, пока сумма модулей последней четверти
+     * коэффициентов не станет меньше tolerance / 4, затем ряд обрезается
+     * так, чтобы сумма модулей отброшенных коэффициентов не превышала
+     * tolerance / 2. Оценка опирается на убывание коэффициентов и надёжна
+     * для гладких функций; у функций с изломами и разрывами коэффициенты
+     * убывают медленно, и нужная степень может оказаться недостижимой.
+     * @param function приближаемая функция
+     * @param leftX левая граница отрезка
+     * @param rightX правая граница отрезка
+     * @param tolerance допустимое отклонение
+     * @return ряд Чебышёва на [leftX, rightX]
+     * @throws IllegalArgumentException если параметры некорректны, функция
+     *         не определена в одном из узлов или точность не достигается
+     *         при степени меньше 4096
+     */
+    public static ChebyshevFunction chebyshevWithTolerance(Function function, double leftX, double rightX, double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("Допустимое отклонение должно быть положительным");
+        }
+        checkInterval(function, leftX, rightX);
+        
+        for (int n = CHEBYSHEV_INITIAL_POINTS; n <= CHEBYSHEV_MAX_POINTS; n *= 2) {
+            double[] coefficients = chebyshevCoefficients(function, leftX, rightX, n);
+            double tail = 0;
+            for (int j = n - n / 4; j < n; j++) {
+                tail += Math.abs(coefficients[j]);
+            }
+            if (tail > tolerance / 4) {
+                continue;
+            }
+            
+            // Наименьшая степень, для которой отбрасываемый хвост не больше tolerance / 2
+            int degree = n - 1;
+            double dropped = Math.abs(coefficients[degree]);
+            while (degree > 0 && dropped <= tolerance / 2) {
+                degree--;
+                dropped += Math.abs(coefficients[degree]);
+            }
+            return new ChebyshevFunction(leftX, rightX, Arrays.copyOf(coefficients, degree + 1));
+        }
+        throw new IllegalArgumentException("Не удалось приблизить функцию с отклонением " + tolerance
+                + " рядом степени меньше " + CHEBYSHEV_MAX_POINTS);
+    }
+    
+    /*
+     * Коэффициенты интерполяционного многочлена по n узлам Чебышёва
+     * x_k = середина + полуширина · cos(π(k + 1/2) / n):
+     * c_j = 2/n · Σ f(x_k) · cos(πj(k + 1/2) / n), c_0 - вдвое меньше.
+     * Косинусы берутся из таблицы cos(πm / 2n) по m = j(2k + 1) mod 4n.
+     */
+    private static double[] chebyshevCoefficients(Function function, double leftX, double rightX, int n) {
+        double[] cosines = new double[4 * n];
+        for (int m = 0; m < cosines.length; m++) {
+            cosines[m] = Math.cos(Math.PI * m / (2 * n));
+        }
+        
+        double middle = leftX + (rightX - leftX) / 2;
+        double halfWidth = (rightX - leftX) / 2;
+        double[] values = new double[n];
+        for (int k = 0; k < n; k++) {
+            double x = middle + halfWidth * cosines[2 * k + 1];
+            values[k] = function.getFunctionValue(x);
+            if (Double.isNaN(values[k]) || Double.isInfinite(values[k])) {
+                throw new IllegalArgumentException("Функция не определена в точке " + x);
+            }
+        }
+        
+        double[] coefficients = new double[n];
+        for (int j = 0; j < n; j++) {
+            double sum = 0;
+            int m = j;
+            int increment = 2 * j % cosines.length;
+            for (int k = 0; k < n; k++) {
+                sum += values[k] * cosines[m];
+                m += increment;
+                if (m >= cosines.length) {
+                    m -= cosines.length;
+                }
+            }
+            coefficients[j] = 2 * sum / n;
+        }
+        coefficients[0] /= 2;
+        return coefficients;
+    }
+    
     // ========== Фабричные методы создания табулированных функций ==========
     
     /**
@@ -87,6 +486,22 @@ public class TabulatedFunctions {
         return new ArrayTabulatedFunction(leftX, rightX, pointsCount);
     }
     
+    /**
+     * Создает табулированную функцию на равномерной сетке, хранящую только значения
+     */
+    public static UniformTabulatedFunction createUniformTabulatedFunction(double leftX, double rightX,
+                                                                          double[] values) {
+        return new UniformTabulatedFunction(leftX, rightX, values);
+    }
+    
+    /**
+     * Создает табулированную функцию на равномерной сетке с нулевыми значениями
+     */
+    public static UniformTabulatedFunction createUniformTabulatedFunction(double leftX, double rightX,
+                                                                          int pointsCount) {
+        return new UniformTabulatedFunction(leftX, rightX, pointsCount);
+    }
+    
     /**
      * Создает табулированную функцию с использованием LinkedListTabulatedFunction
      */
@@ -101,39 +516,250 @@ public class TabulatedFunctions {
         return new ArrayTabulatedFunction(points);
     }
     
+    /**
+     * Создает табулированную функцию с хранением точек вне кучи (OffHeapTabulatedFunction).
+     * Возвращаемый объект нужно закрыть методом close() после использования.
+     */
+    public static OffHeapTabulatedFunction createOffHeapTabulatedFunction(FunctionPoint[] points) {
+        return new OffHeapTabulatedFunction(points);
+    }
+
+    /**
+     * Создает табулированную функцию на блоках массивов (ChunkedTabulatedFunction)
+     * для сценариев с частыми вставками и удалениями точек.
+     */
+    public static TabulatedFunction createChunkedTabulatedFunction(FunctionPoint[] points) {
+        return new ChunkedTabulatedFunction(points);
+    }
+
+    /**
+     * Возвращает потокобезопасную обёртку над табулированной функцией.
+     * Чтение из многих потоков выполняется без взаимных блокировок,
+     * изменения точек - под исключительной блокировкой. После создания
+     * обёртки к исходной функции нужно обращаться только через неё.
+     */
+    public static ConcurrentTabulatedFunction concurrentTabulatedFunction(TabulatedFunction function) {
+        if (function instanceof ConcurrentTabulatedFunction) {
+            return (ConcurrentTabulatedFunction) function;
+        }
+        return new ConcurrentTabulatedFunction(function);
+    }
+
     // ========== Методы для работы с байтовыми потоками ==========
     
     /**
-     * Выводит табулированную функцию в байтовый поток
+     * Выводит табулированную функцию в байтовый поток: int количество точек,
+     * затем пары double x, y в порядке байтов DataOutputStream (big-endian).
+     * Координаты записываются блоками, поэтому поток можно не буферизовать
      */
     public static void outputTabulatedFunction(TabulatedFunction function, OutputStream out) throws IOException {
-        DataOutputStream dataOut = new DataOutputStream(out);
-        
-        int pointsCount = function.getPointsCount();
-        dataOut.writeInt(pointsCount);
-        
-        for (int i = 0; i < pointsCount; i++) {
-            dataOut.writeDouble(function.getPointX(i));
-            dataOut.writeDouble(function.getPointY(i));
+        writeBinary(function, Channels.newChannel(out), ByteBuffer.allocate(BINARY_BUFFER_BYTES));
+    }
+    
+    /**
+     * Выводит табулированную функцию в байтовый поток. Функция на равномерной
+     * сетке (UniformTabulatedFunction, не перешедшая к явному хранению X)
+     * записывается без X: int -1, int количество точек, double левая граница,
+     * double шаг, затем значения - вдвое короче. Остальные функции записываются
+     * как в outputTabulatedFunction. Такой поток читает inputTabulatedFunction,
+     * но не MappedTabulatedFunction
+     */
+    public static void outputUniformTabulatedFunction(TabulatedFunction function, OutputStream out)
+            throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_BUFFER_BYTES);
+        if (isUniform(function)) {
+            writeUniformBinary((UniformTabulatedFunction) function, channel, buffer);
+        } else {
+            writeBinary(function, channel, buffer);
         }
     }
     
+    private static boolean isUniform(TabulatedFunction function) {
+        return function instanceof UniformTabulatedFunction && ((UniformTabulatedFunction) function).isUniform();
+    }
+    
     /**
-     * Вводит табулированную функцию из байтового потока
+     * Вводит табулированную функцию из байтового потока. Читаются ровно
+     * байты функции, поэтому за ней в потоке могут следовать другие данные.
+     * Функция, записанная outputUniformTabulatedFunction без X, читается
+     * как UniformTabulatedFunction
      */
     public static TabulatedFunction inputTabulatedFunction(InputStream in) throws IOException {
-        DataInputStream dataIn = new DataInputStream(in);
+        return readBinary(Channels.newChannel(in), ByteBuffer.allocate(BINARY_BUFFER_BYTES));
+    }
+    
+    // Функция кодируется блоками BinaryEncoder; полный буфер уходит в канал
+    private static void writeBinary(TabulatedFunction function, WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        BinaryEncoder encoder = new BinaryEncoder(function);
+        buffer.clear();
+        do {
+            encoder.fill(buffer);
+            flush(buffer, channel);
+        } while (!encoder.isDone());
+    }
+    
+    /**
+     * Кодирует функцию в байтовый формат по частям: каждый вызов fill
+     * дописывает в буфер блоки точек, пока они в нём помещаются. Координаты
+     * блока переставляются в порядок x0, y0, x1, y1, ... и записываются
+     * в буфер одной операцией. Буфер должен вмещать BINARY_BUFFER_BYTES
+     */
+    static final class BinaryEncoder {
         
-        int pointsCount = dataIn.readInt();
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        private final TabulatedFunction function;
+        private final int pointsCount;
+        private final double[] block = new double[2 * BINARY_BLOCK_POINTS];
+        // Индекс следующей точки; -1, пока не записано количество точек
+        private int next = -1;
         
-        for (int i = 0; i < pointsCount; i++) {
-            double x = dataIn.readDouble();
-            double y = dataIn.readDouble();
-            points[i] = new FunctionPoint(x, y);
+        BinaryEncoder(TabulatedFunction function) {
+            this.function = function;
+            this.pointsCount = function.getPointsCount();
         }
         
-        return new ArrayTabulatedFunction(points);
+        boolean isDone() {
+            return next == pointsCount;
+        }
+        
+        void fill(ByteBuffer buffer) {
+            if (next < 0) {
+                buffer.putInt(pointsCount);
+                next = 0;
+            }
+            while (next < pointsCount) {
+                int count = Math.min(BINARY_BLOCK_POINTS, pointsCount - next);
+                if (buffer.remaining() < count * 2 * Double.BYTES) {
+                    return;
+                }
+                for (int i = 0; i < count; i++) {
+                    block[2 * i] = function.getPointX(next + i);
+                    block[2 * i + 1] = function.getPointY(next + i);
+                }
+                buffer.asDoubleBuffer().put(block, 0, 2 * count);
+                buffer.position(buffer.position() + count * 2 * Double.BYTES);
+                next += count;
+            }
+        }
+    }
+    
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    // Значения равномерной сетки пишутся прямо из getPointY блоками по 8192
+    private static void writeUniformBinary(UniformTabulatedFunction function, WritableByteChannel channel,
+                                           ByteBuffer buffer) throws IOException {
+        int pointsCount = function.getPointsCount();
+        double[] block = new double[2 * BINARY_BLOCK_POINTS];
+        buffer.clear();
+        buffer.putInt(UNIFORM_MARKER);
+        buffer.putInt(pointsCount);
+        buffer.putDouble(function.getLeftDomainBorder());
+        buffer.putDouble(function.getStep());
+        
+        for (int from = 0; from < pointsCount; from += block.length) {
+            int count = Math.min(block.length, pointsCount - from);
+            for (int i = 0; i < count; i++) {
+                block[i] = function.getPointY(from + i);
+            }
+            if (buffer.remaining() < count * Double.BYTES) {
+                flush(buffer, channel);
+            }
+            buffer.asDoubleBuffer().put(block, 0, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+        }
+        flush(buffer, channel);
+    }
+    
+    // Читает из канала ровно столько байт, сколько точек указано в заголовке
+    private static TabulatedFunction readBinary(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(Integer.BYTES);
+        readFully(channel, buffer);
+        int pointsCount = buffer.getInt(0);
+        if (pointsCount == UNIFORM_MARKER) {
+            return readUniformBinary(channel, buffer);
+        }
+        if (pointsCount < 0) {
+            throw new IOException("Некорректное количество точек: " + pointsCount);
+        }
+        
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        double[] block = new double[2 * BINARY_BLOCK_POINTS];
+        for (int from = 0; from < pointsCount; from += BINARY_BLOCK_POINTS) {
+            int count = Math.min(BINARY_BLOCK_POINTS, pointsCount - from);
+            buffer.clear().limit(count * 2 * Double.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(block, 0, 2 * count);
+            for (int i = 0; i < count; i++) {
+                xs[from + i] = block[2 * i];
+                ys[from + i] = block[2 * i + 1];
+            }
+        }
+        return ArrayTabulatedFunction.adoptChecked(xs, ys);
+    }
+    
+    // Значения читаются из буфера прямо в массив функции
+    private static UniformTabulatedFunction readUniformBinary(ReadableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.clear().limit(UNIFORM_HEADER_BYTES);
+        readFully(channel, buffer);
+        int pointsCount = buffer.getInt(0);
+        double leftX = buffer.getDouble(Integer.BYTES);
+        double step = buffer.getDouble(Integer.BYTES + Double.BYTES);
+        if (pointsCount < 0) {
+            throw new IOException("Некорректное количество точек: " + pointsCount);
+        }
+        
+        double[] ys = new double[pointsCount];
+        int blockValues = 2 * BINARY_BLOCK_POINTS;
+        for (int from = 0; from < pointsCount; from += blockValues) {
+            int count = Math.min(blockValues, pointsCount - from);
+            buffer.clear().limit(count * Double.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(ys, from, count);
+        }
+        return UniformTabulatedFunction.adoptChecked(leftX, step, ys);
+    }
+    
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Неожиданный конец потока");
+            }
+        }
+    }
+    
+    // ========== Сжатый байтовый формат ==========
+    
+    /**
+     * Выводит табулированную функцию в байтовый поток в сжатом формате без потерь:
+     * каждая координата предсказывается по двум предыдущим, записывается XOR
+     * значения и предсказания (схема Gorilla). Для гладких функций на равномерной
+     * сетке запись в несколько раз короче outputTabulatedFunction.
+     * Данные пишутся блоками по 4096 точек, поток можно не буферизовать
+     */
+    public static void outputCompressedTabulatedFunction(TabulatedFunction function, OutputStream out)
+            throws IOException {
+        CompressedTabulatedFormat.write(function, out);
+    }
+    
+    /**
+     * Вводит табулированную функцию из байтового потока в сжатом формате.
+     * Значения восстанавливаются побитово; читаются ровно байты функции
+     * @throws IOException если поток не в сжатом формате, версия формата
+     * не поддерживается или данные повреждены
+     */
+    public static TabulatedFunction inputCompressedTabulatedFunction(InputStream in) throws IOException {
+        return CompressedTabulatedFormat.read(in);
     }
     
     // ========== Методы для работы с символьными потоками ==========
@@ -157,76 +783,13 @@ public class TabulatedFunctions {
     }
     
     /**
-     * Читает табулированную функцию из символьного потока
+     * Читает табулированную функцию из символьного потока.
+     * Поток читается блоками в буфер символов, числа разбираются прямо
+     * из буфера в массивы примитивов размером из первой строки; поток
+     * можно не оборачивать в BufferedReader
      */
     public static TabulatedFunction readTabulatedFunction(Reader in) throws IOException {
-        // Используем BufferedReader для построчного чтения
-        BufferedReader reader = new BufferedReader(in);
-        ArrayList<Double> numbers = new ArrayList<>();
-        
-        String line;
-        int lineNumber = 0;
-        
-        try {
-            // Читаем первую строку - количество точек
-            line = reader.readLine();
-            if (line == null) {
-                throw new IOException("Неожиданный конец потока");
-            }
-            lineNumber++;
-            
-            // Парсим количество точек
-            int pointsCount = Integer.parseInt(line.trim());
-            numbers.add((double) pointsCount);
-            
-            // Читаем остальные строки с координатами
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-                if (line.isEmpty()) {
-                    continue; // Пропускаем пустые строки
-                }
-                
-                // Разделяем строку по пробелам
-                String[] parts = line.split("\\s+");
-                if (parts.length != 2) {
-                    throw new IOException("Некорректный формат строки " + lineNumber + 
-                                        ": ожидалось два числа через пробел, получено: " + line);
-                }
-                
-                // Парсим координаты
-                try {
-                    double x = Double.parseDouble(parts[0]);
-                    double y = Double.parseDouble(parts[1]);
-                    numbers.add(x);
-                    numbers.add(y);
-                } catch (NumberFormatException e) {
-                    throw new IOException("Некорректный формат числа в строке " + lineNumber + ": " + line);
-                }
-            }
-            
-        } catch (NumberFormatException e) {
-            throw new IOException("Некорректный формат числа: " + e.getMessage());
-        }
-        
-        // Проверяем соответствие количества точек
-        int pointsCount = numbers.get(0).intValue();
-        
-        if (pointsCount * 2 + 1 != numbers.size()) {
-            throw new IOException("Некорректное количество точек: ожидалось " + 
-                                pointsCount + " точек (" + (pointsCount * 2) + " чисел), " +
-                                "но получено " + (numbers.size() - 1) + " чисел");
-        }
-        
-        // Создаем массив точек
-        FunctionPoint[] points = new FunctionPoint[pointsCount];
-        for (int i = 0; i < pointsCount; i++) {
-            double x = numbers.get(1 + i * 2);
-            double y = numbers.get(1 + i * 2 + 1);
-            points[i] = new FunctionPoint(x, y);
-        }
-        
-        return new ArrayTabulatedFunction(points);
+        return TabulatedTextReader.read(in);
     }
     
     /**
@@ -308,23 +871,86 @@ public class TabulatedFunctions {
     // ========== Дополнительные утилитные методы ==========
     
     /**
-     * Сохраняет табулированную функцию в файл (байтовый формат)
+     * Сохраняет табулированную функцию в файл (байтовый формат).
+     * Файл пишется через FileChannel блоками по 64 КБ; функция, отображённая
+     * из файла (MappedTabulatedFunction), копируется из своего файла без
+     * чтения в память
      */
     public static void saveToFile(TabulatedFunction function, String filename) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(filename)) {
-            outputTabulatedFunction(function, fos);
+        Path path = Paths.get(filename);
+        if (isMappedFrom(function, path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (function instanceof MappedTabulatedFunction) {
+                ((MappedTabulatedFunction) function).transferTo(channel);
+            } else {
+                writeBinary(function, channel, ByteBuffer.allocateDirect(BINARY_BUFFER_BYTES));
+            }
         }
     }
     
+    // Файл отображённой функции уже содержит её; перезапись укоротила бы отображение
+    private static boolean isMappedFrom(TabulatedFunction function, Path path) throws IOException {
+        return function instanceof MappedTabulatedFunction && Files.exists(path)
+                && Files.isSameFile(path, Paths.get(((MappedTabulatedFunction) function).getFilename()));
+    }
+    
     /**
-     * Загружает табулированную функцию из файла (байтовый формат)
+     * Загружает табулированную функцию из файла (байтовый формат).
+     * Файл читается через FileChannel блоками по 64 КБ. Файл, записанный
+     * saveToUniformFile без X, загружается как UniformTabulatedFunction
      */
     public static TabulatedFunction loadFromFile(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return readBinary(channel, ByteBuffer.allocateDirect(BINARY_BUFFER_BYTES));
+        }
+    }
+    
+    /**
+     * Сохраняет табулированную функцию в файл в сжатом байтовом формате
+     */
+    public static void saveToCompressedFile(TabulatedFunction function, String filename) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(filename)) {
+            outputCompressedTabulatedFunction(function, fos);
+        }
+    }
+    
+    /**
+     * Загружает табулированную функцию из файла в сжатом байтовом формате
+     */
+    public static TabulatedFunction loadFromCompressedFile(String filename) throws IOException {
         try (FileInputStream fis = new FileInputStream(filename)) {
-            return inputTabulatedFunction(fis);
+            return inputCompressedTabulatedFunction(fis);
         }
     }
     
+    /**
+     * Сохраняет табулированную функцию в файл байтового формата;
+     * функция на равномерной сетке записывается без X, как
+     * в outputUniformTabulatedFunction. Читается методом loadFromFile
+     */
+    public static void saveToUniformFile(TabulatedFunction function, String filename) throws IOException {
+        if (!isUniform(function)) {
+            saveToFile(function, filename);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeUniformBinary((UniformTabulatedFunction) function, channel,
+                    ByteBuffer.allocateDirect(BINARY_BUFFER_BYTES));
+        }
+    }
+    
+    /**
+     * Открывает файл байтового формата как табулированную функцию только для чтения,
+     * отображённую в память. Время открытия не зависит от размера файла.
+     */
+    public static MappedTabulatedFunction mapFromFile(String filename) throws IOException {
+        return new MappedTabulatedFunction(filename);
+    }
+    
     /**
      * Сохраняет табулированную функцию в текстовый файл
      */
@@ -343,6 +969,146 @@ public class TabulatedFunctions {
         }
     }
     
+    // ========== Асинхронные сохранение и загрузка ==========
+    
+    /**
+     * Асинхронно сохраняет табулированную функцию в файл (байтовый формат
+     * saveToFile). Функция кодируется блоками по 64 КБ: следующий блок
+     * читается из функции после записи предыдущего, поэтому память не зависит
+     * от размера функции. Функцию нельзя изменять, пока запись не завершится.
+     * Функция, отображённая из того же файла, не перезаписывается
+     * @return завершается после записи и закрытия файла
+     */
+    public static CompletableFuture<Void> saveToFileAsync(TabulatedFunction function, String filename) {
+        Path path = Paths.get(filename);
+        try {
+            if (isMappedFrom(function, path)) {
+                return CompletableFuture.completedFuture(null);
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return AsyncTabulatedFiles.write(path, new BinaryEncoder(function),
+                ByteBuffer.allocateDirect(BINARY_BUFFER_BYTES));
+    }
+    
+    /**
+     * Асинхронно загружает табулированную функцию из файла (байтовый формат
+     * loadFromFile, в том числе без X). Файл читается целиком
+     * @return завершается загруженной функцией или ошибкой чтения и разбора
+     */
+    public static CompletableFuture<TabulatedFunction> loadFromFileAsync(String filename) {
+        return AsyncTabulatedFiles.readAll(Paths.get(filename)).thenApply(AsyncTabulatedFiles::decodeBinary);
+    }
+    
+    /**
+     * Асинхронно загружает табулированную функцию из текстового файла,
+     * как loadFromTextFile. Файл читается целиком
+     * @return завершается загруженной функцией или ошибкой чтения и разбора
+     */
+    public static CompletableFuture<TabulatedFunction> loadFromTextFileAsync(String filename) {
+        return AsyncTabulatedFiles.readAll(Paths.get(filename)).thenApply(AsyncTabulatedFiles::decodeText);
+    }
+    
+    /**
+     * Асинхронно загружает набор файлов байтового формата, не больше
+     * 16 файлов одновременно
+     * @see #loadAll(Collection, int)
+     */
+    public static CompletableFuture<List<TabulatedFunction>> loadAll(Collection<Path> paths) {
+        return loadAll(paths, LOAD_ALL_CONCURRENCY);
+    }
+    
+    /**
+     * Асинхронно загружает набор файлов байтового формата. Одновременно
+     * выполняется не больше maxConcurrency загрузок, поэтому число открытых
+     * файлов и занятая память ограничены и при тысячах файлов
+     * @param paths файлы
+     * @param maxConcurrency наибольшее число одновременных загрузок
+     * @return завершается списком функций в порядке файлов или первой ошибкой;
+     * после ошибки новые загрузки не начинаются
+     * @throws IllegalArgumentException если maxConcurrency меньше 1
+     */
+    public static CompletableFuture<List<TabulatedFunction>> loadAll(Collection<Path> paths, int maxConcurrency) {
+        return AsyncTabulatedFiles.loadAll(paths, maxConcurrency);
+    }
+    
+    // ========== Пакетное добавление точек ==========
+    
+    /**
+     * Сортирует добавляемый набор точек по X (массивы координат переставляются
+     * согласованно) и проверяет, что X внутри набора не повторяются.
+     * Используется сортировка слиянием: O(k log k) и устойчивость для равных X.
+     */
+    static void sortPointBatch(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Массивы координат X и Y должны быть одинаковой длины");
+        }
+        
+        int n = xs.length;
+        double[] srcXs = xs;
+        double[] srcYs = ys;
+        double[] dstXs = new double[n];
+        double[] dstYs = new double[n];
+        
+        // Восходящая сортировка слиянием с чередованием буферов
+        for (int width = 1; width < n; width *= 2) {
+            for (int from = 0; from < n; from += 2 * width) {
+                int mid = Math.min(from + width, n);
+                int to = Math.min(from + 2 * width, n);
+                int a = from;
+                int b = mid;
+                for (int t = from; t < to; t++) {
+                    if (b >= to || (a < mid && srcXs[a] <= srcXs[b])) {
+                        dstXs[t] = srcXs[a];
+                        dstYs[t] = srcYs[a++];
+                    } else {
+                        dstXs[t] = srcXs[b];
+                        dstYs[t] = srcYs[b++];
+                    }
+                }
+            }
+            double[] tmp = srcXs;
+            srcXs = dstXs;
+            dstXs = tmp;
+            tmp = srcYs;
+            srcYs = dstYs;
+            dstYs = tmp;
+        }
+        if (srcXs != xs) {
+            System.arraycopy(srcXs, 0, xs, 0, n);
+            System.arraycopy(srcYs, 0, ys, 0, n);
+        }
+        
+        for (int i = 0; i < n - 1; i++) {
+            if (xs[i + 1] < xs[i] + EPSILON) {
+                throw new InappropriateFunctionPointException(
+                    "Точка с X=" + xs[i + 1] + " повторяется в добавляемом наборе");
+            }
+        }
+    }
+    
+    /**
+     * Проверяет, что ни одна точка упорядоченного набора не совпадает по X
+     * с существующими точками функции. Один проход слиянием: O(n + k)
+     * вызовов getPointX, то есть O(n + k) для реализаций с доступом
+     * по индексу за O(1) (массивы, буферы вне кучи). Реализациям, у которых
+     * getPointX дороже, следует проверять дубликаты при своём слиянии.
+     */
+    static void checkPointBatch(TabulatedFunction function, double[] sortedXs)
+            throws InappropriateFunctionPointException {
+        int pointsCount = function.getPointsCount();
+        int i = 0;
+        for (double x : sortedXs) {
+            while (i < pointsCount && function.getPointX(i) <= x - EPSILON) {
+                i++;
+            }
+            if (i < pointsCount && function.getPointX(i) < x + EPSILON) {
+                throw new InappropriateFunctionPointException("Точка с X=" + x + " уже существует");
+            }
+        }
+    }
+    
     /**
      * Конвертирует табулированную функцию в строку для отладки
      */
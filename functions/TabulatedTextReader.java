@@ -0,0 +1,305 @@
+package functions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Потоковое чтение табулированной функции в текстовом формате
+ * writeTabulatedFunction: первая строка - количество точек, далее
+ * по строке на точку, X и Y через пробел.
+ *
+ * Строки выделяются прямо в буфере символов, числа разбираются из буфера
+ * в массивы примитивов, размер которых берётся из первой строки. Строки
+ * и объекты создаются только для сообщений об ошибках и для чисел, которые
+ * не разбираются быстрым путём.
+ */
+final class TabulatedTextReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Больше этого числа точек массивы заранее не выделяются: заголовок может
+    // быть ошибочным, дальше массивы растут вдвое, но не больше заголовка
+    private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+    // Мантисса до 2^53 и степень 10 до 22 представимы точно, поэтому одно
+    // умножение или деление даёт правильно округлённый результат (Clinger)
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    // Строка закончилась на '\r': следующий '\n' относится к тому же переводу строки
+    private boolean skipLineFeed;
+
+    // Границы текущей строки в буфере, без символов перевода строки
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber;
+
+    private TabulatedTextReader(Reader in) {
+        this.in = in;
+    }
+
+    static TabulatedFunction read(Reader in) throws IOException {
+        return new TabulatedTextReader(in).read();
+    }
+
+    private TabulatedFunction read() throws IOException {
+        if (!nextLine()) {
+            throw new IOException("Неожиданный конец потока");
+        }
+        int pointsCount;
+        try {
+            pointsCount = Integer.parseInt(lineString());
+        } catch (NumberFormatException e) {
+            throw new IOException("Некорректный формат числа: " + e.getMessage());
+        }
+
+        int capacity = Math.max(0, Math.min(pointsCount, MAX_INITIAL_CAPACITY));
+        double[] xs = new double[capacity];
+        double[] ys = new double[capacity];
+        int lines = 0;
+
+        while (nextLine()) {
+            int from = lineStart;
+            int to = lineEnd;
+            // Пробельные символы по краям отбрасываются как в String.trim
+            while (from < to && buffer[from] <= ' ') {
+                from++;
+            }
+            while (to > from && buffer[to - 1] <= ' ') {
+                to--;
+            }
+            if (from == to) {
+                continue;
+            }
+
+            int firstEnd = skipToken(from, to);
+            int second = skipSeparators(firstEnd, to);
+            int secondEnd = skipToken(second, to);
+            if (second == to || secondEnd != to) {
+                throw new IOException("Некорректный формат строки " + lineNumber +
+                                    ": ожидалось два числа через пробел, получено: " + lineString());
+            }
+
+            double x;
+            double y;
+            try {
+                x = parseDouble(from, firstEnd);
+                y = parseDouble(second, secondEnd);
+            } catch (NumberFormatException e) {
+                throw new IOException("Некорректный формат числа в строке " + lineNumber + ": " + lineString());
+            }
+
+            // Строки сверх заголовка проверяются, но не сохраняются
+            if (lines < pointsCount) {
+                if (lines == capacity) {
+                    capacity = (int) Math.min(pointsCount, 2L * capacity);
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                xs[lines] = x;
+                ys[lines] = y;
+            }
+            lines++;
+        }
+
+        int numbersCount = 2 * lines;
+        if (pointsCount * 2 != numbersCount) {
+            throw new IOException("Некорректное количество точек: ожидалось " +
+                                pointsCount + " точек (" + (pointsCount * 2) + " чисел), " +
+                                "но получено " + numbersCount + " чисел");
+        }
+
+        return ArrayTabulatedFunction.adoptChecked(xs, ys);
+    }
+
+    /**
+     * Выделяет в буфере следующую строку. Переводы строк - '\n', '\r'
+     * и "\r\n", как в BufferedReader.readLine
+     * @return false, если поток закончился
+     */
+    private boolean nextLine() throws IOException {
+        if (skipLineFeed) {
+            if (position == limit) {
+                fill();
+            }
+            if (position < limit && buffer[position] == '\n') {
+                position++;
+            }
+            skipLineFeed = false;
+        }
+
+        int scan = position;
+        while (true) {
+            while (scan < limit) {
+                char c = buffer[scan];
+                if (c == '\n' || c == '\r') {
+                    lineStart = position;
+                    lineEnd = scan;
+                    position = scan + 1;
+                    skipLineFeed = c == '\r';
+                    lineNumber++;
+                    return true;
+                }
+                scan++;
+            }
+            int scanned = scan - position;
+            if (!fill()) {
+                if (position == limit) {
+                    return false;
+                }
+                lineStart = position;
+                lineEnd = limit;
+                position = limit;
+                lineNumber++;
+                return true;
+            }
+            scan = position + scanned;
+        }
+    }
+
+    /**
+     * Сдвигает непрочитанный остаток в начало буфера (при необходимости
+     * увеличивая буфер) и дочитывает символы из потока
+     * @return false, если поток закончился
+     */
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read;
+        do {
+            read = in.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    // Разделители чисел - те же символы, что \s в регулярных выражениях
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\f' || c == '\u000B';
+    }
+
+    private int skipToken(int from, int to) {
+        while (from < to && !isSeparator(buffer[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private int skipSeparators(int from, int to) {
+        while (from < to && isSeparator(buffer[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private String lineString() {
+        return new String(buffer, lineStart, lineEnd - lineStart).trim();
+    }
+
+    /**
+     * Разбирает десятичное число вида [+-]цифры[.цифры][(e|E)[+-]цифры].
+     * Если мантисса больше 2^53 или порядок больше 22 по модулю, а также
+     * для остальных записей, которые принимает Double.parseDouble
+     * (NaN, Infinity, шестнадцатеричные), число разбирает Double.parseDouble
+     * @throws NumberFormatException если запись не является числом
+     */
+    private double parseDouble(int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        while (i < to && buffer[i] >= '0' && buffer[i] <= '9') {
+            int digit = buffer[i++] - '0';
+            anyDigits = true;
+            if (digits < MAX_SIGNIFICANT_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                return parseSlow(from, to);
+            }
+        }
+        if (i < to && buffer[i] == '.') {
+            i++;
+            while (i < to && buffer[i] >= '0' && buffer[i] <= '9') {
+                int digit = buffer[i++] - '0';
+                anyDigits = true;
+                if (digits < MAX_SIGNIFICANT_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    return parseSlow(from, to);
+                }
+            }
+        }
+        if (!anyDigits) {
+            return parseSlow(from, to);
+        }
+
+        if (i < to && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            int start = i;
+            int value = 0;
+            while (i < to && buffer[i] >= '0' && buffer[i] <= '9' && i - start < 4) {
+                value = value * 10 + (buffer[i++] - '0');
+            }
+            if (i == start) {
+                return parseSlow(from, to);
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != to) {
+            return parseSlow(from, to);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0
+                    ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+        } else {
+            return parseSlow(from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseSlow(int from, int to) {
+        return Double.parseDouble(new String(buffer, from, to - from));
+    }
+}
@@ -0,0 +1,376 @@
+package functions;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Табулированная функция на равномерной сетке: хранятся только левая
+ * граница, шаг и значения. X точки с номером i вычисляется как
+ * leftX + i * step - так же, как в TabulatedFunctions.tabulate и в
+ * конструкторах ArrayTabulatedFunction по отрезку, поэтому точки совпадают
+ * с точками этих функций побитово. Памяти требуется вдвое меньше, а отрезок
+ * для интерполяции находится делением без поиска.
+ *
+ * Добавление точки в следующий узел сетки справа и удаление последней
+ * точки сетку сохраняют. Любое другое изменение X (смещение точки с узла,
+ * вставка вне сетки, удаление не последней точки, пакетное добавление)
+ * переводит функцию в явное хранение X в ArrayTabulatedFunction; дальше
+ * все методы работают через неё, и поведение не отличается от
+ * ArrayTabulatedFunction с теми же точками.
+ */
+public class UniformTabulatedFunction implements TabulatedFunction, Serializable, Cloneable {
+
+    private static final long serialVersionUID = 1L;
+    private static final double EPSILON = 1e-10;
+
+    private final double leftX;
+    private final double step;
+    // Значения в узлах сетки; после перехода к явному хранению - null
+    private double[] ys;
+    private int pointsCount;
+
+    // Явное хранение точек после выхода с сетки; до этого - null
+    private ArrayTabulatedFunction explicit;
+
+    public UniformTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, gridStep(leftX, rightX, pointsCount), pointsCount, new double[pointsCount]);
+    }
+
+    public UniformTabulatedFunction(double leftX, double rightX, double[] values) {
+        this(leftX, gridStep(leftX, rightX, values.length), values.length, values.clone());
+    }
+
+    // Без проверок: аргументы проверены вызывающим кодом, массив значений не копируется
+    private UniformTabulatedFunction(double leftX, double step, int pointsCount, double[] values) {
+        this.leftX = leftX;
+        this.step = step;
+        this.pointsCount = pointsCount;
+        this.ys = values;
+    }
+
+    /**
+     * Шаг сетки из pointsCount точек на отрезке [leftX, rightX]
+     * @throws IllegalArgumentException если отрезок пуст или точек меньше двух
+     */
+    private static double gridStep(double leftX, double rightX, int pointsCount) {
+        if (leftX >= rightX - EPSILON) {
+            throw new IllegalArgumentException("Левая граница должна быть меньше правой границы");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        return (rightX - leftX) / (pointsCount - 1);
+    }
+
+    /**
+     * Создаёт функцию по левой границе и шагу над массивом значений без
+     * копирования, с теми же проверками количества и порядка точек, что
+     * ArrayTabulatedFunction.adoptChecked. Используется при чтении из потока
+     */
+    static UniformTabulatedFunction adoptChecked(double leftX, double step, double[] values) {
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть не менее 2");
+        }
+        for (int i = 0; i < values.length - 1; i++) {
+            if (leftX + i * step >= leftX + (i + 1) * step - EPSILON) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию X");
+            }
+        }
+        return new UniformTabulatedFunction(leftX, step, values.length, values);
+    }
+
+    /**
+     * Проверяет, хранится ли функция как равномерная сетка
+     * @return false, если функция перешла к явному хранению X
+     */
+    public boolean isUniform() {
+        return explicit == null;
+    }
+
+    /**
+     * Возвращает шаг сетки
+     * @return шаг или NaN, если функция перешла к явному хранению X
+     */
+    public double getStep() {
+        return explicit == null ? step : Double.NaN;
+    }
+
+    // X узла сетки
+    private double x(int index) {
+        return leftX + index * step;
+    }
+
+    /**
+     * Переводит функцию к явному хранению X. ArrayTabulatedFunction получает
+     * копию значений длиной pointsCount: массив ys может иметь запас после
+     * addPoint, а ArrayTabulatedFunction требует массивы по числу точек
+     */
+    private ArrayTabulatedFunction toExplicit() {
+        if (explicit == null) {
+            double[] xs = new double[pointsCount];
+            for (int i = 0; i < pointsCount; i++) {
+                xs[i] = x(i);
+            }
+            explicit = ArrayTabulatedFunction.adopt(xs, Arrays.copyOf(ys, pointsCount));
+            ys = null;
+        }
+        return explicit;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException(index);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        if (explicit != null) {
+            return explicit.getLeftDomainBorder();
+        }
+        return leftX;
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        if (explicit != null) {
+            return explicit.getRightDomainBorder();
+        }
+        return x(pointsCount - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (explicit != null) {
+            return explicit.getFunctionValue(x);
+        }
+        if (x < leftX - EPSILON || x > x(pointsCount - 1) + EPSILON) {
+            return Double.NaN;
+        }
+        return interpolate(findSegment(x), x);
+    }
+
+    @Override
+    public void getFunctionValues(double[] xValues, double[] out) {
+        if (explicit != null) {
+            explicit.getFunctionValues(xValues, out);
+            return;
+        }
+        double left = leftX - EPSILON;
+        double right = x(pointsCount - 1) + EPSILON;
+        for (int i = 0; i < xValues.length; i++) {
+            double x = xValues[i];
+            out[i] = x < left || x > right ? Double.NaN : interpolate(findSegment(x), x);
+        }
+    }
+
+    /**
+     * Номер отрезка [x_i, x_{i+1}], содержащего x, вычисляется делением;
+     * из-за округления X узлов он уточняется на единицу в ту или другую сторону
+     */
+    private int findSegment(double x) {
+        int last = pointsCount - 2;
+        int i = (int) ((x - leftX) / step);
+        if (i < 0) {
+            i = 0;
+        } else if (i > last) {
+            i = last;
+        }
+        if (i > 0 && x < x(i)) {
+            return i - 1;
+        }
+        if (i < last && x > x(i + 1)) {
+            return i + 1;
+        }
+        return i;
+    }
+
+    // Линейная интерполяция на отрезке [x_i, x_{i+1}], как в ArrayTabulatedFunction
+    private double interpolate(int i, double x) {
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        double y1 = ys[i];
+        double y2 = ys[i + 1];
+
+        if (x > x1 - EPSILON && x < x1 + EPSILON) {
+            return y1;
+        }
+        if (x > x2 - EPSILON && x < x2 + EPSILON) {
+            return y2;
+        }
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    @Override
+    public int getPointsCount() {
+        if (explicit != null) {
+            return explicit.getPointsCount();
+        }
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        if (explicit != null) {
+            return explicit.getPoint(index);
+        }
+        checkIndex(index);
+        return new FunctionPoint(x(index), ys[index]);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (explicit == null) {
+            checkIndex(index);
+            if (Double.compare(point.getX(), x(index)) == 0) {
+                ys[index] = point.getY();
+                return;
+            }
+        }
+        toExplicit().setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        if (explicit != null) {
+            return explicit.getPointX(index);
+        }
+        checkIndex(index);
+        return x(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        if (explicit == null) {
+            checkIndex(index);
+            if (Double.compare(x, x(index)) == 0) {
+                return;
+            }
+        }
+        toExplicit().setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        if (explicit != null) {
+            return explicit.getPointY(index);
+        }
+        checkIndex(index);
+        return ys[index];
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        if (explicit != null) {
+            explicit.setPointY(index, y);
+            return;
+        }
+        checkIndex(index);
+        ys[index] = y;
+    }
+
+    /**
+     * Точка точно в следующем узле сетки справа добавляется без выхода с сетки,
+     * если она не совпадает с последней точкой с погрешностью EPSILON;
+     * остальные - через явное хранение
+     */
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (explicit == null && Double.compare(point.getX(), x(pointsCount)) == 0
+                && point.getX() >= x(pointsCount - 1) + EPSILON) {
+            if (pointsCount == ys.length) {
+                ys = Arrays.copyOf(ys, ys.length + ys.length / 2 + 1);
+            }
+            ys[pointsCount++] = point.getY();
+            return;
+        }
+        toExplicit().addPoint(point);
+    }
+
+    @Override
+    public void addPoints(double[] xValues, double[] yValues) throws InappropriateFunctionPointException {
+        toExplicit().addPoints(xValues, yValues);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        if (explicit == null) {
+            checkIndex(index);
+            if (index == pointsCount - 1) {
+                if (pointsCount < 3) {
+                    throw new IllegalStateException("Нельзя удалить точку - функция должна содержать минимум 3 точки");
+                }
+                pointsCount--;
+                if (pointsCount < ys.length / 4) {
+                    ys = Arrays.copyOf(ys, pointsCount * 2);
+                }
+                return;
+            }
+        }
+        toExplicit().deletePoint(index);
+    }
+
+    @Override
+    public String toString() {
+        if (explicit != null) {
+            return explicit.toString();
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('(').append(x(i)).append("; ").append(ys[i]).append(')');
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (explicit != null) {
+            return explicit.equals(o);
+        }
+        if (!(o instanceof TabulatedFunction)) return false;
+        TabulatedFunction other = (TabulatedFunction) o;
+        if (pointsCount != other.getPointsCount()) return false;
+
+        // Сравнение координат как в FunctionPoint.equals
+        for (int i = 0; i < pointsCount; i++) {
+            if (Double.compare(x(i), other.getPointX(i)) != 0
+                    || Double.compare(ys[i], other.getPointY(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        if (explicit != null) {
+            return explicit.hashCode();
+        }
+        // Та же формула, что в ArrayTabulatedFunction: равные функции разных классов
+        // имеют одинаковый хэш-код
+        int result = pointsCount;
+        for (int i = 0; i < pointsCount; i++) {
+            result ^= FunctionPoint.pointHashCode(x(i), ys[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public UniformTabulatedFunction clone() {
+        try {
+            UniformTabulatedFunction cloned = (UniformTabulatedFunction) super.clone();
+            if (explicit != null) {
+                cloned.explicit = explicit.clone();
+            } else {
+                cloned.ys = ys.clone();
+            }
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Клонирование не поддерживается", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package functions.basic;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+/**
+ * Класс, представляющий постоянную функцию f(x) = c
+ */
+public class Constant implements Function {
+    private final double value;
+
+    /**
+     * Конструктор постоянной функции
+     * @param value значение функции
+     */
+    public Constant(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Возвращает значение левой границы области определения
+     * @return -∞ (Double.NEGATIVE_INFINITY)
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Возвращает значение правой границы области определения
+     * @return +∞ (Double.POSITIVE_INFINITY)
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Возвращает значение функции, не зависящее от аргумента
+     * @param x - аргумент функции
+     * @return c
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        return value;
+    }
+
+    /**
+     * Заполняет массив значений постоянным значением
+     * @param xs аргументы функции
+     * @param out массив для значений функции
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        Arrays.fill(out, 0, xs.length, value);
+    }
+
+    /**
+     * Возвращает значение постоянной функции
+     * @return значение функции
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Сравнивает постоянные функции по значению
+     * @param o объект для сравнения
+     * @return true, если o - постоянная функция с тем же значением
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Double.compare(((Constant) o).value, value) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+    
+    /**
+     * Возвращает строковое представление функции
+     * @return значение функции
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -4,6 +4,26 @@ package functions.basic;
  * Класс, представляющий косинусоидальную функцию cos(x)
  */
 public class Cos extends TrigonometricFunction {
+    // Относительная погрешность getFunctionValues (см. BatchKernels) и
+    // FastKernels.cosHigh - не более 3 ulp, Math.cos - не более 1 ulp,
+    // FastKernels.cos - не более 1.1·10^-10
+    private static final double MAX_ERROR = 3 * Math.ulp(1.0);
+    private static final double FAST_ERROR = 2e-10;
+    
+    /**
+     * Конструктор косинуса с точностью Precision.FULL
+     */
+    public Cos() {
+    }
+    
+    /**
+     * Конструктор косинуса с заданной точностью
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если precision равна null
+     */
+    public Cos(Precision precision) {
+        super(precision);
+    }
     
     /**
      * Вычисляет значение косинуса в заданной точке
@@ -12,9 +32,38 @@ public class Cos extends TrigonometricFunction {
      */
     @Override
     public double getFunctionValue(double x) {
+        Precision precision = getPrecision();
+        if (precision == Precision.FAST) {
+            return FastKernels.cos(x);
+        }
+        if (precision == Precision.HIGH) {
+            return FastKernels.cosHigh(x);
+        }
         return Math.cos(x);
     }
     
+    /**
+     * Вычисляет значения функции для массива аргументов векторизуемым ядром
+     * (см. BatchKernels) при любой точности. Значения могут отличаться
+     * от getFunctionValue в последнем разряде, при Precision.FAST - в пределах getMaxError.
+     * @param xs аргументы функции
+     * @param out массив для значений cos(x)
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        BatchKernels.cos(xs, out);
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * @return 3·2^-52 (3 ulp) для Precision.FULL и Precision.HIGH (пакетное
+     *         вычисление одинаково для всех точностей), 2·10^-10 для Precision.FAST
+     */
+    @Override
+    public double getMaxError() {
+        return getPrecision() == Precision.FAST ? FAST_ERROR : MAX_ERROR;
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "cos(x)"
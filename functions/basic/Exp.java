@@ -5,6 +5,31 @@ import functions.Function;
  * Класс, представляющий экспоненциальную функцию e^x
  */
 public class Exp implements Function {
+    // Относительная погрешность Math.exp и getFunctionValues (см. BatchKernels) -
+    // не более 1 ulp, FastKernels.exp - не более 2.4·10^-12
+    private static final double FULL_ERROR = Math.ulp(1.0);
+    private static final double FAST_ERROR = 1e-11;
+    
+    private final Precision precision;
+    
+    /**
+     * Конструктор экспоненты с точностью Precision.FULL
+     */
+    public Exp() {
+        this(Precision.FULL);
+    }
+    
+    /**
+     * Конструктор экспоненты с заданной точностью
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если precision равна null
+     */
+    public Exp(Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Точность не может быть null");
+        }
+        this.precision = precision;
+    }
     
     /**
      * Возвращает значение левой границы области определения экспоненты
@@ -29,9 +54,58 @@ public class Exp implements Function {
      */
     @Override
     public double getFunctionValue(double x) {
+        if (precision == Precision.FAST) {
+            return FastKernels.exp(x);
+        }
         return Math.exp(x);
     }
     
+    /**
+     * Вычисляет значения функции для массива аргументов векторизуемым ядром
+     * (см. BatchKernels) при любой точности. Значения могут отличаться
+     * от getFunctionValue в последнем разряде, при Precision.FAST - в пределах getMaxError.
+     * @param xs аргументы функции
+     * @param out массив для значений e^x
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        BatchKernels.exp(xs, out);
+    }
+    
+    /**
+     * Возвращает точность вычисления функции
+     * @return точность вычисления
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * @return 2^-52 (1 ulp) для Precision.FULL и Precision.HIGH (HIGH вычисляется
+     *         через Math.exp), 10^-11 для Precision.FAST
+     */
+    public double getMaxError() {
+        return precision == Precision.FAST ? FAST_ERROR : FULL_ERROR;
+    }
+    
+    /**
+     * Сравнивает функции: экспоненты равны, если вычисляются с одной точностью
+     * @param o объект для сравнения
+     * @return true, если o - функция того же класса с той же точностью
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return precision == ((Exp) o).precision;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * getClass().getName().hashCode() + precision.ordinal();
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "exp(x)"
@@ -0,0 +1,100 @@
+package functions.basic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Дескрипторы табличных реализаций (точности Precision.HIGH и Precision.FAST)
+ * для компиляции деревьев функций. Сами реализации закрыты в пакете; дескриптор вида
+ * (double)double вызывает их напрямую, без обращения к узлу функции.
+ */
+public final class FastKernelHandles {
+
+    private static final MethodHandle SIN;
+    private static final MethodHandle COS;
+    private static final MethodHandle TAN;
+    private static final MethodHandle EXP;
+    private static final MethodHandle LOG;
+    private static final MethodHandle SIN_HIGH;
+    private static final MethodHandle COS_HIGH;
+    private static final MethodHandle TAN_HIGH;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType unary = MethodType.methodType(double.class, double.class);
+        try {
+            SIN = lookup.findStatic(FastKernels.class, "sin", unary);
+            COS = lookup.findStatic(FastKernels.class, "cos", unary);
+            TAN = lookup.findStatic(FastKernels.class, "tan", unary);
+            EXP = lookup.findStatic(FastKernels.class, "exp", unary);
+            LOG = lookup.findStatic(FastKernels.class, "log", unary);
+            SIN_HIGH = lookup.findStatic(FastKernels.class, "sinHigh", unary);
+            COS_HIGH = lookup.findStatic(FastKernels.class, "cosHigh", unary);
+            TAN_HIGH = lookup.findStatic(FastKernels.class, "tanHigh", unary);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FastKernelHandles() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @return дескриптор sin(x), как Sin.getFunctionValue с точностью FAST
+     */
+    public static MethodHandle sin() {
+        return SIN;
+    }
+
+    /**
+     * @return дескриптор cos(x), как Cos.getFunctionValue с точностью FAST
+     */
+    public static MethodHandle cos() {
+        return COS;
+    }
+
+    /**
+     * @return дескриптор tan(x) с NaN в точках разрыва, как Tan.getFunctionValue с точностью FAST
+     */
+    public static MethodHandle tan() {
+        return TAN;
+    }
+
+    /**
+     * @return дескриптор e^x, как Exp.getFunctionValue с точностью FAST
+     */
+    public static MethodHandle exp() {
+        return EXP;
+    }
+
+    /**
+     * Натуральный логарифм; Log с точностью FAST умножает его на 1/ln(base)
+     * @return дескриптор ln(x), NaN для x ≤ 0
+     */
+    public static MethodHandle log() {
+        return LOG;
+    }
+
+    /**
+     * @return дескриптор sin(x), как Sin.getFunctionValue с точностью HIGH
+     */
+    public static MethodHandle sinHigh() {
+        return SIN_HIGH;
+    }
+
+    /**
+     * @return дескриптор cos(x), как Cos.getFunctionValue с точностью HIGH
+     */
+    public static MethodHandle cosHigh() {
+        return COS_HIGH;
+    }
+
+    /**
+     * @return дескриптор tan(x) с NaN в точках разрыва, как Tan.getFunctionValue с точностью HIGH
+     */
+    public static MethodHandle tanHigh() {
+        return TAN_HIGH;
+    }
+}
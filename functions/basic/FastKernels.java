@@ -0,0 +1,267 @@
+package functions.basic;
+
+/**
+ * Табличные реализации элементарных функций для точностей Precision.HIGH
+ * и Precision.FAST.
+ *
+ * Каждая функция - таблица значений в узлах сетки и короткий полином
+ * для отклонения от ближайшего узла, без ветвлений на основном пути.
+ * Для HIGH (sinHigh, cosHigh, tanHigh) полиномы дают погрешность в несколько
+ * ulp. Для FAST степени полиномов понижены до погрешности порядка 10^-10:
+ * синус и косинус отклонения - до t^3 и t^2, экспонента - до r^3,
+ * логарифм - минимаксный полином четвёртой степени. Экспонента и логарифм
+ * для HIGH не нужны: встроенные Math.exp и Math.log при такой точности
+ * не медленнее табличных.
+ * Аргументы, для которых приведение к узлу неточно (очень большие
+ * по модулю, бесконечности, NaN, субнормальные для логарифма),
+ * а также нули синуса и тангенса (чтобы сохранить знак нуля)
+ * вычисляются через Math.
+ *
+ * Погрешности измерены на 10^7 случайных аргументах в каждом интервале
+ * и на аргументах вблизи нулей и точек разрыва, сравнением со StrictMath;
+ * границы в getMaxError взяты с запасом.
+ */
+final class FastKernels {
+
+    // 1.5·2^52: после прибавления к |v| < 2^51 младшие биты мантиссы -
+    // округлённое до целого v, а вычитание возвращает его как double
+    private static final double SHIFTER = 6755399441055744.0;
+
+    // sin и cos: x = N·π/256 + t, |t| ≤ π/512. π/256 из трёх частей по 27 бит
+    // и хвоста, поэтому N·PI256_k точны при |N| < 2^26
+    private static final double INV_PI256 = 81.48733086305042;
+    private static final double PI256_1 = 0.012271846295334399;
+    private static final double PI256_2 = 7.750731046557435e-12;
+    private static final double PI256_3 = 4.469678679424668e-20;
+    private static final double PI256_3T = 1.2848638231503326e-28;
+    private static final double TRIG_LIMIT = 823549.6654632302; // 2^26 · π/256
+
+    // Коэффициенты Тейлора. При |t| ≤ π/512 отброшенные члены HIGH меньше 2^-60;
+    // FAST берёт только S3 и C2, отброшенные t^5/120 и t^4/24 меньше 6·10^-11
+    private static final double S3 = -1.0 / 6;
+    private static final double S5 = 1.0 / 120;
+    private static final double C2 = -0.5;
+    private static final double C4 = 1.0 / 24;
+    private static final double C6 = -1.0 / 720;
+
+    // sin(j·π/256) за полный период; нули и единицы точные, поэтому вблизи
+    // нулей sin и cos (и точек разрыва tan) погрешность остаётся относительной
+    private static final double[] SIN = new double[512];
+
+    // exp: x = k·ln2/128 + r, |r| ≤ ln2/256. ln2/128 - одна константа:
+    // ошибка приведения меньше 10^-13
+    private static final double INV_LN2_128 = 184.6649652337873;
+    private static final double LN2_128 = 0.0054152123481245725;
+    private static final double EXP_MIN = -708.0;
+    private static final double EXP_MAX = 709.0;
+    // Отброшенный член r^4/24 меньше 3·10^-12
+    private static final double E2 = 1.0 / 2;
+    private static final double E3 = 1.0 / 6;
+
+    // Биты 2^(j/128)
+    private static final long[] EXP_BITS = new long[128];
+
+    // log: x = 2^e · m, m из [LOG_OFF, 2·LOG_OFF), m = (1 + u) / c_i. Номер i -
+    // старшие 7 бит мантиссы m - LOG_OFF, то есть отрезок длиной 2^-8 или 2^-7
+    private static final double LN2 = 0.6931471805599453;
+    private static final long LOG_OFF_BITS = 0x3fe6000000000000L; // 0.6875
+    private static final long EXPONENT_MASK = 0xfff0000000000000L;
+    private static final int LOG_INDEX_SHIFT = 52 - 7;
+    // c_i кратны 2^-7 (не больше 8 значащих бит), а |u| < 2^-7, поэтому
+    // m·c_i - 1 вычисляется точно без fma: у старшей части m сброшены 8 младших
+    // бит, и оба произведения (m_hi·c_i и (m - m_hi)·c_i) точны
+    private static final long LOG_LOW_BITS = 0xffL;
+    // Минимакс ln(1 + u) ≈ u + u²(L2 + u(L3 + u·L4)) по относительной погрешности
+    // при |u| ≤ 2^-7: не больше 1.2·10^-10
+    private static final double L2 = -0.5000000028692804;
+    private static final double L3 = 0.3333430309122093;
+    private static final double L4 = -0.2498883565036926;
+
+    // c_i и -ln(c_i); на отрезках, прилегающих к 1, c_i = 1 и -ln(c_i) = 0,
+    // поэтому вблизи x = 1 погрешность остаётся относительной
+    private static final double[] LOG_INVERSES = new double[128];
+    private static final double[] LOG_VALUES = new double[128];
+
+    static {
+        for (int j = 0; j <= 128; j++) {
+            // Меньший аргумент - меньше ошибка приведения
+            double value = j <= 64
+                    ? StrictMath.sin(j * (Math.PI / 256))
+                    : StrictMath.cos((128 - j) * (Math.PI / 256));
+            SIN[j] = value;
+            SIN[256 - j] = value;
+            SIN[(256 + j) & 511] = -value;
+            SIN[(512 - j) & 511] = -value;
+        }
+        SIN[0] = 0.0;
+        SIN[256] = 0.0;
+
+        for (int j = 0; j < EXP_BITS.length; j++) {
+            EXP_BITS[j] = Double.doubleToRawLongBits(StrictMath.pow(2, j / 128.0));
+        }
+
+        for (int i = 0; i < LOG_INVERSES.length; i++) {
+            double left = Double.longBitsToDouble(LOG_OFF_BITS + ((long) i << LOG_INDEX_SHIFT));
+            double right = Double.longBitsToDouble(LOG_OFF_BITS + ((long) (i + 1) << LOG_INDEX_SHIFT));
+            double inverse = left == 1.0 || right == 1.0 ? 1.0 : Math.rint(256 / (left + right)) / 128;
+            LOG_INVERSES[i] = inverse;
+            LOG_VALUES[i] = -StrictMath.log(inverse);
+        }
+    }
+
+    private FastKernels() {
+        throw new AssertionError();
+    }
+
+    // ========== Precision.FAST ==========
+
+    static double sin(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT) || x == 0) {
+            return Math.sin(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * S3;
+        double cosT1 = t2 * C2;
+
+        // sin(a + t) = sin a + (sin a · (cos t - 1) + cos a · sin t)
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        return sinA + (sinA * cosT1 + cosA * sinT);
+    }
+
+    static double cos(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.cos(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * S3;
+        double cosT1 = t2 * C2;
+
+        // cos(a + t) = cos a + (cos a · (cos t - 1) - sin a · sin t)
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        return cosA + (cosA * cosT1 - sinA * sinT);
+    }
+
+    /**
+     * Тангенс; как в Tan.getFunctionValue, NaN там, где |cos x| < 1e-10
+     */
+    static double tan(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT) || x == 0) {
+            return Math.abs(Math.cos(x)) < 1e-10 ? Double.NaN : Math.tan(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * S3;
+        double cosT1 = t2 * C2;
+
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        double sin = sinA + (sinA * cosT1 + cosA * sinT);
+        double cos = cosA + (cosA * cosT1 - sinA * sinT);
+        return Math.abs(cos) < 1e-10 ? Double.NaN : sin / cos;
+    }
+
+    static double exp(double x) {
+        if (!(x >= EXP_MIN && x <= EXP_MAX)) {
+            return Math.exp(x);
+        }
+        double shifted = x * INV_LN2_128 + SHIFTER;
+        int k = (int) Double.doubleToRawLongBits(shifted);
+        double r = x - (shifted - SHIFTER) * LN2_128;
+        double p = r + r * r * (E2 + r * E3);
+
+        // 2^(k/128) = 2^(k >> 7) · 2^((k & 127) / 128): порядок прибавляется к битам
+        double scale = Double.longBitsToDouble(EXP_BITS[k & 127] + ((long) (k >> 7) << 52));
+        return scale + scale * p;
+    }
+
+    /**
+     * Натуральный логарифм; для x ≤ 0 значение NaN, как в Log.getFunctionValue
+     */
+    static double log(double x) {
+        if (!(x >= Double.MIN_NORMAL && x <= Double.MAX_VALUE)) {
+            return x <= 0 ? Double.NaN : Math.log(x);
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        long shifted = bits - LOG_OFF_BITS;
+        int i = (int) (shifted >>> LOG_INDEX_SHIFT) & 127;
+        double e = (double) (shifted >> 52);
+        long mBits = bits - (shifted & EXPONENT_MASK);
+        double m = Double.longBitsToDouble(mBits);
+        double mHigh = Double.longBitsToDouble(mBits & ~LOG_LOW_BITS);
+
+        double c = LOG_INVERSES[i];
+        double u = (mHigh * c - 1.0) + (m - mHigh) * c;
+        double p = u + u * u * (L2 + u * (L3 + u * L4));
+        return (e * LN2 + LOG_VALUES[i]) + p;
+    }
+
+    // ========== Precision.HIGH ==========
+
+    static double sinHigh(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT) || x == 0) {
+            return Math.sin(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * (S3 + t2 * S5);
+        double cosT1 = t2 * (C2 + t2 * (C4 + t2 * C6));
+
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        return sinA + (sinA * cosT1 + cosA * sinT);
+    }
+
+    static double cosHigh(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT)) {
+            return Math.cos(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * (S3 + t2 * S5);
+        double cosT1 = t2 * (C2 + t2 * (C4 + t2 * C6));
+
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        return cosA + (cosA * cosT1 - sinA * sinT);
+    }
+
+    static double tanHigh(double x) {
+        if (!(Math.abs(x) <= TRIG_LIMIT) || x == 0) {
+            return Math.abs(Math.cos(x)) < 1e-10 ? Double.NaN : Math.tan(x);
+        }
+        double shifted = x * INV_PI256 + SHIFTER;
+        int j = (int) Double.doubleToRawLongBits(shifted) & 511;
+        double t = reduce(x, shifted - SHIFTER);
+        double t2 = t * t;
+        double sinT = t + t * t2 * (S3 + t2 * S5);
+        double cosT1 = t2 * (C2 + t2 * (C4 + t2 * C6));
+
+        double sinA = SIN[j];
+        double cosA = SIN[(j + 128) & 511];
+        double sin = sinA + (sinA * cosT1 + cosA * sinT);
+        double cos = cosA + (cosA * cosT1 - sinA * sinT);
+        return Math.abs(cos) < 1e-10 ? Double.NaN : sin / cos;
+    }
+
+    // x - n·π/256 для |n| < 2^26
+    private static double reduce(double x, double n) {
+        double t = x - n * PI256_1;
+        t = t - n * PI256_2;
+        t = t - n * PI256_3;
+        return t - n * PI256_3T;
+    }
+}
@@ -6,17 +6,44 @@ import functions.Function;
  * Класс, представляющий логарифмическую функцию log_base(x)
  */
 public class Log implements Function {
+    // Относительная погрешность: ln(x) - до 1 ulp у Math.log, до 2 ulp у BatchKernels
+    // и до 1.2·10^-10 у FastKernels.log, ln(base) - до 1 ulp, деление или умножение
+    // на 1/ln(base) добавляют ещё 0.5-1 ulp
+    private static final double FULL_ERROR = 4 * Math.ulp(1.0);
+    private static final double FAST_ERROR = 2e-10;
+    
     private final double base;
+    private final Precision precision;
+    // ln(base) и 1/ln(base) вычисляются один раз
+    private final double logBase;
+    private final double inverseLogBase;
+    
     /**
-     * Конструктор логарифма с заданным основанием
+     * Конструктор логарифма с заданным основанием и точностью Precision.FULL
      * @param base основание логарифма (должно быть положительным и не равным 1)
      * @throws IllegalArgumentException если основание некорректно
      */
     public Log(double base) {
+        this(base, Precision.FULL);
+    }
+    
+    /**
+     * Конструктор логарифма с заданным основанием и точностью
+     * @param base основание логарифма (должно быть положительным и не равным 1)
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если основание некорректно или precision равна null
+     */
+    public Log(double base, Precision precision) {
         if (base <= 0 || Math.abs(base - 1.0) < 1e-10) {
             throw new IllegalArgumentException("Основание логарифма должно быть положительным и не равным 1");
         }
+        if (precision == null) {
+            throw new IllegalArgumentException("Точность не может быть null");
+        }
         this.base = base;
+        this.precision = precision;
+        this.logBase = Math.log(base);
+        this.inverseLogBase = 1.0 / logBase;
     }
     /**
      * Возвращает значение левой границы области определения логарифма
@@ -41,11 +68,26 @@ public class Log implements Function {
      */
     @Override
     public double getFunctionValue(double x) {
+        if (precision == Precision.FAST) {
+            return FastKernels.log(x) * inverseLogBase;
+        }
         if (x <= 0) {
             return Double.NaN; // Логарифм не определен для неположительных аргументов
         }
-        return Math.log(x) / Math.log(base);
+        return Math.log(x) / logBase;
     }
+    /**
+     * Вычисляет значения логарифма для массива аргументов векторизуемым ядром
+     * (см. BatchKernels) при любой точности. Значения могут отличаться
+     * от getFunctionValue в последних разрядах, при Precision.FAST - в пределах getMaxError.
+     * @param xs аргументы функции
+     * @param out массив для значений log_base(x), Double.NaN для x <= 0
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        BatchKernels.log(xs, out, logBase);
+    }
+    
     /**
      * Возвращает основание логарифма
      * @return основание логарифма
@@ -53,6 +95,41 @@ public class Log implements Function {
     public double getBase() {
         return base;
     }
+    
+    /**
+     * Возвращает точность вычисления функции
+     * @return точность вычисления
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * @return 4·2^-52 для Precision.FULL и Precision.HIGH (HIGH вычисляется
+     *         через Math.log), 2·10^-10 для Precision.FAST
+     */
+    public double getMaxError() {
+        return precision == Precision.FAST ? FAST_ERROR : FULL_ERROR;
+    }
+    /**
+     * Сравнивает логарифмы по основанию и точности
+     * @param o объект для сравнения
+     * @return true, если o - логарифм с тем же основанием и той же точностью
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Log that = (Log) o;
+        return Double.compare(that.base, base) == 0 && precision == that.precision;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(base) + precision.ordinal();
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "log_base(x)"
@@ -0,0 +1,26 @@
+package functions.basic;
+
+/**
+ * Точность вычисления базовых функций, от точной к быстрой.
+ *
+ * Погрешность каждой функции при выбранной точности возвращает её метод
+ * getMaxError - граница относительной погрешности |f~(x) - f(x)| / |f(x)|.
+ */
+public enum Precision {
+    /**
+     * Значения Math: погрешность не более 1 ulp в отдельной точке
+     */
+    FULL,
+    /**
+     * Табличные sin, cos и tan с погрешностью в несколько ulp, быстрее Math
+     * примерно вдвое (tan - в 3,5 раза); exp и log - как FULL, встроенные Math.exp и Math.log
+     * при такой точности не медленнее табличных
+     */
+    HIGH,
+    /**
+     * Табличные реализации с короткими полиномами: относительная погрешность
+     * не больше 3·10^-10 (exp - 10^-11). Быстрее Math: sin и cos примерно
+     * в 2,5 раза, tan - в 4 раза, exp и log - примерно вдвое
+     */
+    FAST
+}
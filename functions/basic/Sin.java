@@ -4,6 +4,26 @@ package functions.basic;
  * Класс, представляющий синусоидальную функцию sin(x)
  */
 public class Sin extends TrigonometricFunction {
+    // Относительная погрешность getFunctionValues (см. BatchKernels) и
+    // FastKernels.sinHigh - не более 3 ulp, Math.sin - не более 1 ulp,
+    // FastKernels.sin - не более 1.1·10^-10
+    private static final double MAX_ERROR = 3 * Math.ulp(1.0);
+    private static final double FAST_ERROR = 2e-10;
+    
+    /**
+     * Конструктор синуса с точностью Precision.FULL
+     */
+    public Sin() {
+    }
+    
+    /**
+     * Конструктор синуса с заданной точностью
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если precision равна null
+     */
+    public Sin(Precision precision) {
+        super(precision);
+    }
     
     /**
      * Вычисляет значение синуса в заданной точке
@@ -12,9 +32,38 @@ public class Sin extends TrigonometricFunction {
      */
     @Override
     public double getFunctionValue(double x) {
+        Precision precision = getPrecision();
+        if (precision == Precision.FAST) {
+            return FastKernels.sin(x);
+        }
+        if (precision == Precision.HIGH) {
+            return FastKernels.sinHigh(x);
+        }
         return Math.sin(x);
     }
     
+    /**
+     * Вычисляет значения функции для массива аргументов векторизуемым ядром
+     * (см. BatchKernels) при любой точности. Значения могут отличаться
+     * от getFunctionValue в последнем разряде, при Precision.FAST - в пределах getMaxError.
+     * @param xs аргументы функции
+     * @param out массив для значений sin(x)
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        BatchKernels.sin(xs, out);
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * @return 3·2^-52 (3 ulp) для Precision.FULL и Precision.HIGH (пакетное
+     *         вычисление одинаково для всех точностей), 2·10^-10 для Precision.FAST
+     */
+    @Override
+    public double getMaxError() {
+        return getPrecision() == Precision.FAST ? FAST_ERROR : MAX_ERROR;
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "sin(x)"
@@ -5,6 +5,26 @@ package functions.basic;
  * Обратите внимание: тангенс имеет разрывы в точках π/2 + πk
  */
 public class Tan extends TrigonometricFunction {
+    // Относительная погрешность getFunctionValues (см. BatchKernels) и
+    // FastKernels.tanHigh - не более 5 ulp, Math.tan - не более 1 ulp,
+    // FastKernels.tan - не более 2·10^-10
+    private static final double MAX_ERROR = 5 * Math.ulp(1.0);
+    private static final double FAST_ERROR = 3e-10;
+    
+    /**
+     * Конструктор тангенса с точностью Precision.FULL
+     */
+    public Tan() {
+    }
+    
+    /**
+     * Конструктор тангенса с заданной точностью
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если precision равна null
+     */
+    public Tan(Precision precision) {
+        super(precision);
+    }
     
     /**
      * Вычисляет значение тангенса в заданной точке
@@ -13,6 +33,13 @@ public class Tan extends TrigonometricFunction {
      */
     @Override
     public double getFunctionValue(double x) {
+        Precision precision = getPrecision();
+        if (precision == Precision.FAST) {
+            return FastKernels.tan(x);
+        }
+        if (precision == Precision.HIGH) {
+            return FastKernels.tanHigh(x);
+        }
         // Проверяем, не является ли точка точкой разрыва
         double cosValue = Math.cos(x);
         if (Math.abs(cosValue) < 1e-10) {
@@ -21,6 +48,28 @@ public class Tan extends TrigonometricFunction {
         return Math.tan(x);
     }
     
+    /**
+     * Вычисляет значения функции для массива аргументов векторизуемым ядром
+     * (см. BatchKernels) при любой точности. Значения могут отличаться
+     * от getFunctionValue в последних разрядах, при Precision.FAST - в пределах getMaxError.
+     * @param xs аргументы функции (в радианах)
+     * @param out массив для значений tan(x), Double.NaN в точках разрыва
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        BatchKernels.tan(xs, out);
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * @return 5·2^-52 (5 ulp) для Precision.FULL и Precision.HIGH (пакетное
+     *         вычисление одинаково для всех точностей), 3·10^-10 для Precision.FAST
+     */
+    @Override
+    public double getMaxError() {
+        return getPrecision() == Precision.FAST ? FAST_ERROR : MAX_ERROR;
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "tan(x)"
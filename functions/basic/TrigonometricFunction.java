@@ -4,9 +4,29 @@ import functions.Function;
 
 /**
  * Базовый класс для тригонометрических функций
- * Определяет общую область определения (-∞, +∞)
+ * Определяет общую область определения (-∞, +∞) и точность вычисления
  */
 public abstract class TrigonometricFunction implements Function {
+    private final Precision precision;
+    
+    /**
+     * Конструктор функции с точностью Precision.FULL
+     */
+    protected TrigonometricFunction() {
+        this(Precision.FULL);
+    }
+    
+    /**
+     * Конструктор функции с заданной точностью
+     * @param precision точность вычисления
+     * @throws IllegalArgumentException если precision равна null
+     */
+    protected TrigonometricFunction(Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Точность не может быть null");
+        }
+        this.precision = precision;
+    }
     
     /**
      * Возвращает значение левой границы области определения тригонометрических функций
@@ -33,4 +53,37 @@ public abstract class TrigonometricFunction implements Function {
      */
     @Override
     public abstract double getFunctionValue(double x);
-}
\ No newline at end of file
+    
+    /**
+     * Возвращает точность вычисления функции
+     * @return точность вычисления
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    /**
+     * Возвращает наибольшую относительную погрешность значений функции
+     * (getFunctionValue и getFunctionValues) при выбранной точности
+     * @return граница относительной погрешности
+     */
+    public abstract double getMaxError();
+    
+    /**
+     * Сравнивает функции: тригонометрические функции равны,
+     * если относятся к одному классу и вычисляются с одной точностью
+     * @param o объект для сравнения
+     * @return true, если o - функция того же класса с той же точностью
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return precision == ((TrigonometricFunction) o).precision;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * getClass().getName().hashCode() + precision.ordinal();
+    }
+}
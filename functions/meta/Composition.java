@@ -8,6 +8,14 @@ import functions.Function;
 public class Composition implements Function {
     private final Function f;
     private final Function g;
+    // Границы областей определения f и g, вычисленные при создании,
+    // если они не могут измениться
+    private final boolean fixedDomain;
+    private final double leftBorder;
+    private final double rightBorder;
+    private final boolean fixedOuterDomain;
+    private final double outerLeftBorder;
+    private final double outerRightBorder;
     
     /**
      * Конструктор композиции функций
@@ -17,6 +25,12 @@ public class Composition implements Function {
     public Composition(Function f, Function g) {
         this.f = f;
         this.g = g;
+        this.fixedDomain = Domains.isFixed(f);
+        this.leftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.rightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
+        this.fixedOuterDomain = Domains.isFixed(g);
+        this.outerLeftBorder = fixedOuterDomain ? g.getLeftDomainBorder() : Double.NaN;
+        this.outerRightBorder = fixedOuterDomain ? g.getRightDomainBorder() : Double.NaN;
     }
     
     /**
@@ -25,6 +39,9 @@ public class Composition implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
         return f.getLeftDomainBorder();
     }
     
@@ -34,6 +51,9 @@ public class Composition implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
         return f.getRightDomainBorder();
     }
     
@@ -45,21 +65,118 @@ public class Composition implements Function {
     @Override
     public double getFunctionValue(double x) {
         // Проверяем, что точка принадлежит области определения внутренней функции
-        if (x < f.getLeftDomainBorder() || x > f.getRightDomainBorder()) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        
-        double innerValue = f.getFunctionValue(x);
+        return getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значение композиции без проверки области определения.
+     * Принадлежность значения внутренней функции области определения внешней
+     * функции по-прежнему проверяется.
+     * @param x аргумент функции из области определения
+     * @return g(f(x))
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
+        double innerValue = f.getFunctionValueUnchecked(x);
         if (Double.isNaN(innerValue)) {
             return Double.NaN;
         }
         
         // Проверяем, что значение внутренней функции принадлежит области определения внешней функции
-        if (innerValue < g.getLeftDomainBorder() || innerValue > g.getRightDomainBorder()) {
+        if (innerValue < outerLeftBorder() || innerValue > outerRightBorder()) {
             return Double.NaN;
         }
         
-        return g.getFunctionValue(innerValue);
+        return g.getFunctionValueUnchecked(innerValue);
+    }
+    
+    /**
+     * Вычисляет значения композиции для массива аргументов.
+     * Внутренняя и внешняя функции вычисляются по одному разу на весь массив.
+     * @param xs аргументы функции
+     * @param out массив для значений g(f(x)), Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double fLeft = getLeftDomainBorder();
+        double fRight = getRightDomainBorder();
+        
+        // Аргументы вне области определения внутренней функции заменяем на NaN
+        double[] inner = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            inner[i] = (x < fLeft || x > fRight) ? Double.NaN : x;
+        }
+        
+        f.getFunctionValues(inner, inner);
+        
+        double gLeft = outerLeftBorder();
+        double gRight = outerRightBorder();
+        for (int i = 0; i < n; i++) {
+            double value = inner[i];
+            if (value < gLeft || value > gRight) {
+                inner[i] = Double.NaN;
+            }
+        }
+        
+        g.getFunctionValues(inner, out);
+        
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(inner[i])) {
+                out[i] = Double.NaN;
+            }
+        }
+    }
+    
+    private double outerLeftBorder() {
+        return fixedOuterDomain ? outerLeftBorder : g.getLeftDomainBorder();
+    }
+    
+    private double outerRightBorder() {
+        return fixedOuterDomain ? outerRightBorder : g.getRightDomainBorder();
+    }
+    
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+    
+    /**
+     * Возвращает внутреннюю функцию
+     * @return внутренняя функция
+     */
+    public Function getInnerFunction() {
+        return f;
+    }
+    
+    /**
+     * Возвращает внешнюю функцию
+     * @return внешняя функция
+     */
+    public Function getOuterFunction() {
+        return g;
+    }
+    
+    /**
+     * Сравнивает функции по структуре: композиции равны, если равны
+     * соответствующие функции. Порядок функций учитывается.
+     * @param o объект для сравнения
+     * @return true, если o - композиции равных функций
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Composition that = (Composition) o;
+        return f.equals(that.f) && g.equals(that.g);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + f.hashCode()) + g.hashCode();
     }
     
     /**
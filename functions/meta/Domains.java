@@ -0,0 +1,55 @@
+package functions.meta;
+
+import functions.Function;
+import functions.basic.*;
+
+/**
+ * Вспомогательные методы для областей определения мета-функций
+ */
+final class Domains {
+
+    private Domains() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Проверяет, что границы области определения функции не могут измениться:
+     * это базовая функция или мета-функция, построенная только из таких функций.
+     * У табулированных функций границы меняются вместе с точками, а подклассы
+     * могли переопределить границы, поэтому проверяется точный класс.
+     * @param f проверяемая функция
+     * @return true, если границы можно вычислить один раз
+     */
+    static boolean isFixed(Function f) {
+        Class<?> type = f.getClass();
+        if (type == Sin.class || type == Cos.class || type == Tan.class || type == Exp.class
+                || type == Log.class || type == Constant.class) {
+            return true;
+        }
+        if (type == Sum.class) {
+            return ((Sum) f).hasFixedDomain();
+        }
+        if (type == Mult.class) {
+            return ((Mult) f).hasFixedDomain();
+        }
+        if (type == Composition.class) {
+            return ((Composition) f).hasFixedDomain();
+        }
+        if (type == Power.class) {
+            return ((Power) f).hasFixedDomain();
+        }
+        if (type == IntegerPower.class) {
+            return ((IntegerPower) f).hasFixedDomain();
+        }
+        if (type == Scale.class) {
+            return ((Scale) f).hasFixedDomain();
+        }
+        if (type == Shift.class) {
+            return ((Shift) f).hasFixedDomain();
+        }
+        if (type == Shared.class) {
+            return ((Shared) f).hasFixedDomain();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+package functions.meta;
+
+import functions.Function;
+
+/**
+ * Класс, представляющий функцию в целой степени: [f(x)]^power.
+ * Степень вычисляется умножениями (возведением в квадрат) вместо Math.pow,
+ * поэтому результат может отличаться от Power в последних разрядах.
+ */
+public class IntegerPower implements Function {
+    private final Function f;
+    private final int power;
+    // Область определения f, вычисленная при создании, если её границы не могут измениться
+    private final boolean fixedDomain;
+    private final double leftBorder;
+    private final double rightBorder;
+
+    /**
+     * Конструктор функции в целой степени
+     * @param f базовая функция
+     * @param power целая степень
+     */
+    public IntegerPower(Function f, int power) {
+        this.f = f;
+        this.power = power;
+        this.fixedDomain = Domains.isFixed(f);
+        this.leftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.rightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
+    }
+
+    /**
+     * Возводит число в целую степень за O(log |power|) умножений.
+     * Для отрицательной степени, если value^|power| выходит за пределы
+     * нормализованных чисел, деление теряет точность, и результат
+     * вычисляется через Math.pow
+     * @param value основание
+     * @param power целая степень
+     * @return value^power
+     */
+    public static double pow(double value, int power) {
+        long remaining = Math.abs((long) power);
+        double result = 1.0;
+        double base = value;
+        while (remaining > 0) {
+            if ((remaining & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            remaining >>= 1;
+        }
+        if (power >= 0) {
+            return result;
+        }
+        double magnitude = Math.abs(result);
+        if (magnitude < Double.MIN_NORMAL || magnitude == Double.POSITIVE_INFINITY) {
+            return Math.pow(value, power);
+        }
+        return 1.0 / result;
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return левая граница области определения базовой функции
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
+        return f.getLeftDomainBorder();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return правая граница области определения базовой функции
+     */
+    @Override
+    public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
+        return f.getRightDomainBorder();
+    }
+
+    /**
+     * Вычисляет значение функции в заданной точке
+     * @param x аргумент функции
+     * @return [f(x)]^power, или Double.NaN если точка вне области определения
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
+            return Double.NaN;
+        }
+        return getFunctionValueUnchecked(x);
+    }
+
+    /**
+     * Вычисляет значение функции без проверки области определения
+     * @param x аргумент функции из области определения
+     * @return [f(x)]^power
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
+        double value = f.getFunctionValueUnchecked(x);
+        if (Double.isNaN(value)) {
+            return Double.NaN;
+        }
+        return pow(value, power);
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Базовая функция вычисляется один раз на весь массив.
+     * @param xs аргументы функции
+     * @param out массив для значений [f(x)]^power, Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+
+        // Аргументы вне области определения заменяем на NaN
+        double[] args = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            args[i] = (x < left || x > right) ? Double.NaN : x;
+        }
+
+        f.getFunctionValues(args, out);
+
+        for (int i = 0; i < n; i++) {
+            double value = out[i];
+            out[i] = (Double.isNaN(args[i]) || Double.isNaN(value)) ? Double.NaN : pow(value, power);
+        }
+    }
+
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+
+    /**
+     * Возвращает базовую функцию
+     * @return базовая функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+
+    /**
+     * Возвращает степень
+     * @return степень
+     */
+    public int getPower() {
+        return power;
+    }
+
+    /**
+     * Сравнивает функции по структуре: равны исходные функции и степень
+     * @param o объект для сравнения
+     * @return true, если o задаёт ту же функцию
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntegerPower that = (IntegerPower) o;
+        return that.power == power && f.equals(that.f);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + f.hashCode()) + power;
+    }
+
+    /**
+     * Возвращает строковое представление функции
+     * @return "(f)^power"
+     */
+    @Override
+    public String toString() {
+        return "(" + f + ")^" + power;
+    }
+}
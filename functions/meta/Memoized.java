@@ -0,0 +1,303 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+/**
+ * Функция с кэшем значений ограниченного размера.
+ *
+ * Ключом служат биты аргумента (Double.doubleToRawLongBits), поэтому 0.0 и -0.0
+ * кэшируются раздельно. Записи хранятся в примитивных массивах, а индекс по
+ * ключу - таблица с открытой адресацией и линейным пробированием. При
+ * заполнении кэша вытесняется запись по алгоритму CLOCK: стрелка обходит
+ * записи по кругу и вытесняет первую, к которой не обращались с прошлого обхода.
+ *
+ * Кэш не знает об изменениях исходной функции: если её значения изменились
+ * (например, у табулированной функции), нужно вызвать clear.
+ *
+ * Без потокобезопасного режима экземпляр нельзя использовать из нескольких
+ * потоков одновременно. В потокобезопасном режиме обращения к кэшу выполняются
+ * под блокировкой, а сама функция вычисляется вне её.
+ */
+public class Memoized implements Function {
+    private final Function f;
+    private final int capacity;
+    private final boolean threadSafe;
+
+    // Записи кэша: ключ, значение и признак обращения для CLOCK
+    private final long[] keys;
+    private final double[] values;
+    private final boolean[] referenced;
+    private int size;
+    private int hand;
+
+    // Индекс по ключу: номер записи + 1, 0 - пустая ячейка
+    private final int[] table;
+    private final int shift;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Конструктор кэширующей функции
+     * @param f исходная функция
+     * @param capacity наибольшее количество запоминаемых значений
+     * @param threadSafe true, если экземпляр используется из нескольких потоков
+     * @throws IllegalArgumentException если capacity не положительна
+     */
+    public Memoized(Function f, int capacity, boolean threadSafe) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость кэша должна быть положительной");
+        }
+        if (capacity > 1 << 29) {
+            throw new IllegalArgumentException("Ёмкость кэша не может превышать " + (1 << 29));
+        }
+        this.f = f;
+        this.capacity = capacity;
+        this.threadSafe = threadSafe;
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        this.referenced = new boolean[capacity];
+
+        // Таблица заполнена не более чем наполовину
+        int tableBits = 32 - Integer.numberOfLeadingZeros(capacity * 2 - 1);
+        this.table = new int[1 << tableBits];
+        this.shift = 64 - tableBits;
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return левая граница области определения исходной функции
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        return f.getLeftDomainBorder();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return правая граница области определения исходной функции
+     */
+    @Override
+    public double getRightDomainBorder() {
+        return f.getRightDomainBorder();
+    }
+
+    /**
+     * Возвращает значение функции из кэша или вычисляет и запоминает его
+     * @param x аргумент функции
+     * @return f(x)
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        long key = Double.doubleToRawLongBits(x);
+        if (!threadSafe) {
+            int entry = find(key);
+            if (entry >= 0) {
+                hits++;
+                referenced[entry] = true;
+                return values[entry];
+            }
+            misses++;
+            double value = f.getFunctionValue(x);
+            store(key, value);
+            return value;
+        }
+
+        synchronized (this) {
+            int entry = find(key);
+            if (entry >= 0) {
+                hits++;
+                referenced[entry] = true;
+                return values[entry];
+            }
+            misses++;
+        }
+        // Вычисление может быть долгим, поэтому выполняется без блокировки
+        double value = f.getFunctionValue(x);
+        synchronized (this) {
+            // Другой поток мог успеть запомнить то же значение
+            if (find(key) < 0) {
+                store(key, value);
+            }
+        }
+        return value;
+    }
+
+    // Номер записи с заданным ключом или -1
+    private int find(long key) {
+        int mask = table.length - 1;
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+    }
+
+    private void store(long key, double value) {
+        int entry;
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = evict();
+        }
+        keys[entry] = key;
+        values[entry] = value;
+        referenced[entry] = false;
+
+        int mask = table.length - 1;
+        int slot = slot(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    // Выбирает запись для вытеснения по CLOCK и удаляет её из индекса
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+        }
+        int victim = hand;
+        hand = hand + 1 == capacity ? 0 : hand + 1;
+        evictions++;
+        removeFromTable(keys[victim]);
+        return victim;
+    }
+
+    /*
+     * Удаление из таблицы с линейным пробированием без пометок об удалении:
+     * следующие ячейки цепочки сдвигаются назад, если их исходная позиция
+     * не лежит между освободившейся ячейкой и текущей.
+     */
+    private void removeFromTable(long key) {
+        int mask = table.length - 1;
+        int hole = slot(key);
+        while (keys[table[hole] - 1] != key) {
+            hole = (hole + 1) & mask;
+        }
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                break;
+            }
+            int home = slot(keys[entry]);
+            // Запись можно перенести в дыру, если дыра лежит на пути от home к slot
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Очищает кэш; счётчики обращений сохраняются
+     */
+    public void clear() {
+        if (threadSafe) {
+            synchronized (this) {
+                clearEntries();
+            }
+        } else {
+            clearEntries();
+        }
+    }
+
+    private void clearEntries() {
+        Arrays.fill(table, 0);
+        Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Возвращает количество значений, найденных в кэше
+     * @return количество попаданий
+     */
+    public long getHits() {
+        if (threadSafe) {
+            synchronized (this) {
+                return hits;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Возвращает количество значений, вычисленных исходной функцией
+     * @return количество промахов
+     */
+    public long getMisses() {
+        if (threadSafe) {
+            synchronized (this) {
+                return misses;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * Возвращает количество вытесненных из кэша значений
+     * @return количество вытеснений
+     */
+    public long getEvictions() {
+        if (threadSafe) {
+            synchronized (this) {
+                return evictions;
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * Возвращает количество значений в кэше
+     * @return текущий размер кэша
+     */
+    public int getSize() {
+        if (threadSafe) {
+            synchronized (this) {
+                return size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Возвращает наибольшее количество запоминаемых значений
+     * @return ёмкость кэша
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает исходную функцию
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+
+    /**
+     * Возвращает строковое представление функции
+     * @return строковое представление исходной функции
+     */
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+}
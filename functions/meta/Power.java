@@ -8,6 +8,10 @@ import functions.Function;
 public class Power implements Function {
     private final Function f;
     private final double power;
+    // Область определения f, вычисленная при создании, если её границы не могут измениться
+    private final boolean fixedDomain;
+    private final double leftBorder;
+    private final double rightBorder;
     
     /**
      * Конструктор функции в степени
@@ -17,6 +21,9 @@ public class Power implements Function {
     public Power(Function f, double power) {
         this.f = f;
         this.power = power;
+        this.fixedDomain = Domains.isFixed(f);
+        this.leftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.rightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
     }
     
     /**
@@ -25,6 +32,9 @@ public class Power implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
         return f.getLeftDomainBorder();
     }
     
@@ -34,6 +44,9 @@ public class Power implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
         return f.getRightDomainBorder();
     }
     
@@ -45,10 +58,20 @@ public class Power implements Function {
     @Override
     public double getFunctionValue(double x) {
         // Проверяем, что точка принадлежит области определения базовой функции
-        if (x < f.getLeftDomainBorder() || x > f.getRightDomainBorder()) {
+        if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        double value = f.getFunctionValue(x);
+        return getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значение функции без проверки области определения
+     * @param x аргумент функции из области определения
+     * @return [f(x)]^power
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
+        double value = f.getFunctionValueUnchecked(x);
         
         // Проверяем особые случаи для возведения в степень
         if (Double.isNaN(value)) {
@@ -58,6 +81,45 @@ public class Power implements Function {
         return Math.pow(value, power);
     }
     
+    /**
+     * Вычисляет значения функции для массива аргументов.
+     * Базовая функция вычисляется один раз на весь массив.
+     * @param xs аргументы функции
+     * @param out массив для значений [f(x)]^power, Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        
+        // Аргументы вне области определения заменяем на NaN
+        double[] args = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            args[i] = (x < left || x > right) ? Double.NaN : x;
+        }
+        
+        f.getFunctionValues(args, out);
+        
+        for (int i = 0; i < n; i++) {
+            double value = out[i];
+            out[i] = (Double.isNaN(args[i]) || Double.isNaN(value)) ? Double.NaN : Math.pow(value, power);
+        }
+    }
+    
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+    
+    /**
+     * Возвращает базовую функцию
+     * @return базовая функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+    
     /**
      * Возвращает степень
      * @return степень
@@ -66,6 +128,24 @@ public class Power implements Function {
         return power;
     }
     
+    /**
+     * Сравнивает функции по структуре: равны исходные функции и степень
+     * @param o объект для сравнения
+     * @return true, если o задаёт ту же функцию
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Power that = (Power) o;
+        return Double.compare(that.power, power) == 0 && f.equals(that.f);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + f.hashCode()) + Double.hashCode(power);
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "(f)^power"
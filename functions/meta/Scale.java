@@ -9,6 +9,13 @@ public class Scale implements Function {
     private final Function f;
     private final double scaleX;
     private final double scaleY;
+    // Границы области определения f и сдвинутой/масштабированной функции,
+    // вычисленные при создании, если границы f не могут измениться
+    private final boolean fixedDomain;
+    private final double fLeftBorder;
+    private final double fRightBorder;
+    private final double leftBorder;
+    private final double rightBorder;
     
     /**
      * Конструктор масштабированной функции
@@ -20,6 +27,11 @@ public class Scale implements Function {
         this.f = f;
         this.scaleX = scaleX;
         this.scaleY = scaleY;
+        this.fixedDomain = Domains.isFixed(f);
+        this.fLeftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.fRightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
+        this.leftBorder = fixedDomain ? scaledLeftBorder(fLeftBorder, fRightBorder) : Double.NaN;
+        this.rightBorder = fixedDomain ? scaledRightBorder(fLeftBorder, fRightBorder) : Double.NaN;
     }
     
     /**
@@ -28,15 +40,10 @@ public class Scale implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
-        if (scaleX > 0) {
-            return f.getLeftDomainBorder() / scaleX;
-        } else if (scaleX < 0) {
-            return f.getRightDomainBorder() / scaleX;
-        } else {
-            // Если scaleX = 0, функция определена только в нуле (если он входит в область определения f)
-            // Но математически это сложный случай, вернем специальное значение
-            return Double.NEGATIVE_INFINITY;
+        if (fixedDomain) {
+            return leftBorder;
         }
+        return scaledLeftBorder(f.getLeftDomainBorder(), f.getRightDomainBorder());
     }
     
     /**
@@ -45,10 +52,29 @@ public class Scale implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
+        return scaledRightBorder(f.getLeftDomainBorder(), f.getRightDomainBorder());
+    }
+    
+    private double scaledLeftBorder(double fLeft, double fRight) {
         if (scaleX > 0) {
-            return f.getRightDomainBorder() / scaleX;
+            return fLeft / scaleX;
         } else if (scaleX < 0) {
-            return f.getLeftDomainBorder() / scaleX;
+            return fRight / scaleX;
+        } else {
+            // Если scaleX = 0, функция определена только в нуле (если он входит в область определения f)
+            // Но математически это сложный случай, вернем специальное значение
+            return Double.NEGATIVE_INFINITY;
+        }
+    }
+    
+    private double scaledRightBorder(double fLeft, double fRight) {
+        if (scaleX > 0) {
+            return fRight / scaleX;
+        } else if (scaleX < 0) {
+            return fLeft / scaleX;
         } else {
             // Если scaleX = 0
             return Double.POSITIVE_INFINITY;
@@ -66,7 +92,17 @@ public class Scale implements Function {
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        
+        return getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значение масштабированной функции без проверки области определения.
+     * Из-за округления scaleX * x может выйти за границы f, поэтому эта проверка сохраняется.
+     * @param x аргумент функции из области определения
+     * @return scaleY * f(scaleX * x)
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
         // Если scaleX = 0, то f(0) должно быть определено
         if (scaleX == 0) {
             double value = f.getFunctionValue(0);
@@ -78,11 +114,13 @@ public class Scale implements Function {
         
         double innerX = scaleX * x;
         // Проверяем, что innerX принадлежит области определения f
-        if (innerX < f.getLeftDomainBorder() || innerX > f.getRightDomainBorder()) {
+        double fLeft = fixedDomain ? fLeftBorder : f.getLeftDomainBorder();
+        double fRight = fixedDomain ? fRightBorder : f.getRightDomainBorder();
+        if (innerX < fLeft || innerX > fRight) {
             return Double.NaN;
         }
         
-        double value = f.getFunctionValue(innerX);
+        double value = f.getFunctionValueUnchecked(innerX);
         if (Double.isNaN(value)) {
             return Double.NaN;
         }
@@ -90,6 +128,59 @@ public class Scale implements Function {
         return scaleY * value;
     }
     
+    /**
+     * Вычисляет значения масштабированной функции для массива аргументов.
+     * Исходная функция вычисляется один раз на весь массив.
+     * @param xs аргументы функции
+     * @param out массив для значений scaleY * f(scaleX * x), Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        
+        // При scaleX = 0 значение не зависит от аргумента
+        if (scaleX == 0) {
+            double value = scaleY * f.getFunctionValue(0);
+            for (int i = 0; i < n; i++) {
+                double x = xs[i];
+                out[i] = (x < left || x > right) ? Double.NaN : value;
+            }
+            return;
+        }
+        
+        double fLeft = fixedDomain ? fLeftBorder : f.getLeftDomainBorder();
+        double fRight = fixedDomain ? fRightBorder : f.getRightDomainBorder();
+        
+        // Аргументы исходной функции; вне области определения - NaN
+        double[] inner = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            double innerX = scaleX * x;
+            boolean outside = x < left || x > right || innerX < fLeft || innerX > fRight;
+            inner[i] = outside ? Double.NaN : innerX;
+        }
+        
+        f.getFunctionValues(inner, out);
+        
+        for (int i = 0; i < n; i++) {
+            out[i] = Double.isNaN(inner[i]) ? Double.NaN : scaleY * out[i];
+        }
+    }
+    
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+    
+    /**
+     * Возвращает исходную функцию
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+    
     /**
      * Возвращает коэффициент масштабирования по X
      * @return коэффициент масштабирования по X
@@ -106,6 +197,25 @@ public class Scale implements Function {
         return scaleY;
     }
     
+    /**
+     * Сравнивает функции по структуре: равны исходные функции и коэффициенты
+     * @param o объект для сравнения
+     * @return true, если o задаёт ту же функцию
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Scale that = (Scale) o;
+        return Double.compare(that.scaleX, scaleX) == 0 && Double.compare(that.scaleY, scaleY) == 0 && f.equals(that.f);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * getClass().getName().hashCode() + f.hashCode()) + Double.hashCode(scaleX))
+                + Double.hashCode(scaleY);
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "scaleY * f(scaleX * x)"
@@ -0,0 +1,176 @@
+package functions.meta;
+
+import functions.Function;
+
+import java.util.Arrays;
+
+/**
+ * Общий узел графа функций: функция, на которую ссылаются несколько узлов.
+ * Запоминает последний аргумент и значение, поэтому при вычислении графа
+ * в одной точке (или для одного массива аргументов) общая функция
+ * вычисляется один раз, сколько бы узлов на неё ни ссылалось.
+ *
+ * Запомненные значения не зависят от времени, только если значения f
+ * не могут измениться, поэтому узел предназначен для поддеревьев из базовых
+ * и мета-функций. Такие узлы создаёт Functions.intern.
+ */
+public class Shared implements Function {
+    private final Function f;
+    // Область определения f, вычисленная при создании, если её границы не могут измениться
+    private final boolean fixedDomain;
+    private final double leftBorder;
+    private final double rightBorder;
+
+    // Последние вычисления; неизменяемые записи заменяются целиком,
+    // поэтому одновременные вычисления в разных потоках не видят половину записи
+    private volatile Value lastValue;
+    private volatile Values lastValues;
+
+    /**
+     * Конструктор общего узла
+     * @param f общая функция
+     */
+    public Shared(Function f) {
+        this.f = f;
+        this.fixedDomain = Domains.isFixed(f);
+        this.leftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.rightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
+    }
+
+    /**
+     * Возвращает левую границу области определения
+     * @return левая граница области определения общей функции
+     */
+    @Override
+    public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
+        return f.getLeftDomainBorder();
+    }
+
+    /**
+     * Возвращает правую границу области определения
+     * @return правая граница области определения общей функции
+     */
+    @Override
+    public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
+        return f.getRightDomainBorder();
+    }
+
+    /**
+     * Вычисляет значение функции, повторно используя значение для того же аргумента
+     * @param x аргумент функции
+     * @return f(x)
+     */
+    @Override
+    public double getFunctionValue(double x) {
+        Value last = lastValue;
+        // Сравнение битов различает 0.0 и -0.0 и считает NaN равным себе
+        if (last != null && Double.compare(last.x, x) == 0) {
+            return last.value;
+        }
+        double value = f.getFunctionValue(x);
+        lastValue = new Value(x, value);
+        return value;
+    }
+
+    /**
+     * Вычисляет значение функции без проверки области определения.
+     * Внутри области значения совпадают с getFunctionValue, поэтому запомненное
+     * значение общее.
+     * @param x аргумент функции из области определения
+     * @return f(x)
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
+        Value last = lastValue;
+        if (last != null && Double.compare(last.x, x) == 0) {
+            return last.value;
+        }
+        double value = f.getFunctionValueUnchecked(x);
+        lastValue = new Value(x, value);
+        return value;
+    }
+
+    /**
+     * Вычисляет значения функции для массива аргументов. Если массив совпадает
+     * по содержимому с предыдущим, значения копируются без вычисления.
+     * @param xs аргументы функции
+     * @param out массив для значений f(x)
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        Values last = lastValues;
+        if (last != null && Arrays.equals(last.xs, xs)) {
+            System.arraycopy(last.values, 0, out, 0, n);
+            return;
+        }
+        // Аргументы копируются до вычисления: out может совпадать с xs
+        double[] args = xs.clone();
+        f.getFunctionValues(xs, out);
+        lastValues = new Values(args, Arrays.copyOf(out, n));
+    }
+
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+
+    /**
+     * Возвращает общую функцию
+     * @return общая функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+
+    /**
+     * Сравнивает общие узлы по общей функции
+     * @param o объект для сравнения
+     * @return true, если o - общий узел равной функции
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return f.equals(((Shared) o).f);
+    }
+
+    @Override
+    public int hashCode() {
+        return f.hashCode();
+    }
+
+    /**
+     * Возвращает строковое представление функции
+     * @return строковое представление общей функции
+     */
+    @Override
+    public String toString() {
+        return f.toString();
+    }
+
+    private static final class Value {
+        final double x;
+        final double value;
+
+        Value(double x, double value) {
+            this.x = x;
+            this.value = value;
+        }
+    }
+
+    private static final class Values {
+        final double[] xs;
+        final double[] values;
+
+        Values(double[] xs, double[] values) {
+            this.xs = xs;
+            this.values = values;
+        }
+    }
+}
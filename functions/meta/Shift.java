@@ -9,6 +9,13 @@ public class Shift implements Function {
     private final Function f;
     private final double shiftX;
     private final double shiftY;
+    // Границы области определения f и сдвинутой/масштабированной функции,
+    // вычисленные при создании, если границы f не могут измениться
+    private final boolean fixedDomain;
+    private final double fLeftBorder;
+    private final double fRightBorder;
+    private final double leftBorder;
+    private final double rightBorder;
     
     /**
      * Конструктор сдвинутой функции
@@ -20,6 +27,11 @@ public class Shift implements Function {
         this.f = f;
         this.shiftX = shiftX;
         this.shiftY = shiftY;
+        this.fixedDomain = Domains.isFixed(f);
+        this.fLeftBorder = fixedDomain ? f.getLeftDomainBorder() : Double.NaN;
+        this.fRightBorder = fixedDomain ? f.getRightDomainBorder() : Double.NaN;
+        this.leftBorder = fixedDomain ? fLeftBorder - shiftX : Double.NaN;
+        this.rightBorder = fixedDomain ? fRightBorder - shiftX : Double.NaN;
     }
     
     /**
@@ -28,6 +40,9 @@ public class Shift implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
         return f.getLeftDomainBorder() - shiftX;
     }
     
@@ -37,6 +52,9 @@ public class Shift implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
         return f.getRightDomainBorder() - shiftX;
     }
     
@@ -51,14 +69,26 @@ public class Shift implements Function {
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        
+        return getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значение сдвинутой функции без проверки области определения.
+     * Из-за округления x + shiftX может выйти за границы f, поэтому эта проверка сохраняется.
+     * @param x аргумент функции из области определения
+     * @return f(x + shiftX) + shiftY
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
         double innerX = x + shiftX;
         // Проверяем, что innerX принадлежит области определения f
-        if (innerX < f.getLeftDomainBorder() || innerX > f.getRightDomainBorder()) {
+        double fLeft = fixedDomain ? fLeftBorder : f.getLeftDomainBorder();
+        double fRight = fixedDomain ? fRightBorder : f.getRightDomainBorder();
+        if (innerX < fLeft || innerX > fRight) {
             return Double.NaN;
         }
         
-        double value = f.getFunctionValue(innerX);
+        double value = f.getFunctionValueUnchecked(innerX);
         if (Double.isNaN(value)) {
             return Double.NaN;
         }
@@ -66,6 +96,48 @@ public class Shift implements Function {
         return value + shiftY;
     }
     
+    /**
+     * Вычисляет значения сдвинутой функции для массива аргументов.
+     * Исходная функция вычисляется один раз на весь массив.
+     * @param xs аргументы функции
+     * @param out массив для значений f(x + shiftX) + shiftY, Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        double fLeft = fixedDomain ? fLeftBorder : f.getLeftDomainBorder();
+        double fRight = fixedDomain ? fRightBorder : f.getRightDomainBorder();
+        
+        // Аргументы исходной функции; вне области определения - NaN
+        double[] inner = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            double innerX = x + shiftX;
+            boolean outside = x < left || x > right || innerX < fLeft || innerX > fRight;
+            inner[i] = outside ? Double.NaN : innerX;
+        }
+        
+        f.getFunctionValues(inner, out);
+        
+        for (int i = 0; i < n; i++) {
+            out[i] = Double.isNaN(inner[i]) ? Double.NaN : out[i] + shiftY;
+        }
+    }
+    
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+    
+    /**
+     * Возвращает исходную функцию
+     * @return исходная функция
+     */
+    public Function getFunction() {
+        return f;
+    }
+    
     /**
      * Возвращает сдвиг по X
      * @return сдвиг по X
@@ -82,6 +154,25 @@ public class Shift implements Function {
         return shiftY;
     }
     
+    /**
+     * Сравнивает функции по структуре: равны исходные функции и сдвиги
+     * @param o объект для сравнения
+     * @return true, если o задаёт ту же функцию
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Shift that = (Shift) o;
+        return Double.compare(that.shiftX, shiftX) == 0 && Double.compare(that.shiftY, shiftY) == 0 && f.equals(that.f);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * getClass().getName().hashCode() + f.hashCode()) + Double.hashCode(shiftX))
+                + Double.hashCode(shiftY);
+    }
+    
     /**
      * Возвращает строковое представление функции
      * @return "f(x + shiftX) + shiftY"
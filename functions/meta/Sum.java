@@ -8,6 +8,10 @@ import functions.Function;
 public class Sum implements Function {
     private final Function f;
     private final Function g;
+    // Область определения, вычисленная при создании, если границы f и g не могут измениться
+    private final boolean fixedDomain;
+    private final double leftBorder;
+    private final double rightBorder;
     
     /**
      * Конструктор суммы двух функций
@@ -17,6 +21,9 @@ public class Sum implements Function {
     public Sum(Function f, Function g) {
         this.f = f;
         this.g = g;
+        this.fixedDomain = Domains.isFixed(f) && Domains.isFixed(g);
+        this.leftBorder = fixedDomain ? Math.max(f.getLeftDomainBorder(), g.getLeftDomainBorder()) : Double.NaN;
+        this.rightBorder = fixedDomain ? Math.min(f.getRightDomainBorder(), g.getRightDomainBorder()) : Double.NaN;
     }
     
     /**
@@ -25,6 +32,9 @@ public class Sum implements Function {
      */
     @Override
     public double getLeftDomainBorder() {
+        if (fixedDomain) {
+            return leftBorder;
+        }
         return Math.max(f.getLeftDomainBorder(), g.getLeftDomainBorder());
     }
     
@@ -34,6 +44,9 @@ public class Sum implements Function {
      */
     @Override
     public double getRightDomainBorder() {
+        if (fixedDomain) {
+            return rightBorder;
+        }
         return Math.min(f.getRightDomainBorder(), g.getRightDomainBorder());
     }
     
@@ -48,7 +61,86 @@ public class Sum implements Function {
         if (x < getLeftDomainBorder() || x > getRightDomainBorder()) {
             return Double.NaN;
         }
-        return f.getFunctionValue(x) + g.getFunctionValue(x);
+        return getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значение суммы функций без проверки области определения.
+     * Точка из пересечения областей принадлежит области каждой функции,
+     * поэтому функции также вычисляются без проверки.
+     * @param x аргумент функции из области определения
+     * @return f(x) + g(x)
+     */
+    @Override
+    public double getFunctionValueUnchecked(double x) {
+        return f.getFunctionValueUnchecked(x) + g.getFunctionValueUnchecked(x);
+    }
+    
+    /**
+     * Вычисляет значения суммы функций для массива аргументов.
+     * Каждая из функций вычисляется один раз на весь массив во вспомогательный буфер.
+     * @param xs аргументы функции
+     * @param out массив для значений f(x) + g(x), Double.NaN вне области определения
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        int n = xs.length;
+        double left = getLeftDomainBorder();
+        double right = getRightDomainBorder();
+        
+        // Аргументы вне области определения заменяем на NaN
+        double[] args = new double[n];
+        for (int i = 0; i < n; i++) {
+            double x = xs[i];
+            args[i] = (x < left || x > right) ? Double.NaN : x;
+        }
+        
+        double[] gValues = new double[n];
+        f.getFunctionValues(args, out);
+        g.getFunctionValues(args, gValues);
+        
+        for (int i = 0; i < n; i++) {
+            out[i] = Double.isNaN(args[i]) ? Double.NaN : out[i] + gValues[i];
+        }
+    }
+    
+    boolean hasFixedDomain() {
+        return fixedDomain;
+    }
+    
+    /**
+     * Возвращает первую функцию
+     * @return первая функция
+     */
+    public Function getFirstFunction() {
+        return f;
+    }
+    
+    /**
+     * Возвращает вторую функцию
+     * @return вторая функция
+     */
+    public Function getSecondFunction() {
+        return g;
+    }
+    
+    /**
+     * Сравнивает функции по структуре: суммы равны, если равны
+     * соответствующие функции. Порядок функций учитывается.
+     * @param o объект для сравнения
+     * @return true, если o - суммы равных функций
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Sum that = (Sum) o;
+        return f.equals(that.f) && g.equals(that.g);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + f.hashCode()) + g.hashCode();
     }
     
     /**